@@ -0,0 +1,70 @@
+package com.junmoyu.benchmark.singleton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 隔离的类加载器 - 子优先加载 com.junmoyu.singleton 包下的类
+ * 每个加载器都会重新定义单例类，静态字段和类初始化状态都是全新的，
+ * 用于测量首次调用 getInstance()（冷启动）的开销，以及在压力测试中反复制造首次调用的竞争
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class IsolatedClassLoader extends ClassLoader {
+
+    private static final String PACKAGE_PREFIX = "com.junmoyu.singleton.";
+
+    /**
+     * 类文件内容缓存，所有加载器共享，避免每次都从 jar 中读取
+     */
+    private static final Map<String, byte[]> BYTECODE = new ConcurrentHashMap<>();
+
+    public IsolatedClassLoader() {
+        super(IsolatedClassLoader.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(PACKAGE_PREFIX)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                byte[] bytes = bytecode(name);
+                clazz = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+
+    private byte[] bytecode(String name) throws ClassNotFoundException {
+        byte[] bytes = BYTECODE.get(name);
+        if (bytes != null) {
+            return bytes;
+        }
+        String resource = name.replace('.', '/') + ".class";
+        try (InputStream in = getParent().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            bytes = out.toByteArray();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+        BYTECODE.put(name, bytes);
+        return bytes;
+    }
+}
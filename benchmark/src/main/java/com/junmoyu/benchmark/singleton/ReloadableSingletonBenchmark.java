@@ -0,0 +1,92 @@
+package com.junmoyu.benchmark.singleton;
+
+import com.junmoyu.singleton.EagerlySingleton;
+import com.junmoyu.singleton.reload.ReloadableSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 可热更新单例的读取开销：与饿汉式单例对比
+ * <ul>
+ *     <li>eagerly / reloadableGet：无更新时的读取，预期两者相同，都只是一次字段读</li>
+ *     <li>reloadableRead：登记读者的读取，多两次 LongAdder 自增</li>
+ *     <li>reloading 组：3 个线程读取的同时，1 个线程不断热更新</li>
+ * </ul>
+ * 运行：java -jar benchmark/target/benchmarks.jar ReloadableSingletonBenchmark
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReloadableSingletonBenchmark {
+
+    /**
+     * 与实际用法一致，保存在静态常量中
+     */
+    private static final ReloadableSingleton<Config> RELOADABLE = ReloadableSingleton.of(new Config(0));
+
+    private long version;
+
+    @Setup
+    public void setup() {
+        EagerlySingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object eagerly() {
+        return EagerlySingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object reloadableGet() {
+        return RELOADABLE.get();
+    }
+
+    @Benchmark
+    public long reloadableRead() {
+        return RELOADABLE.read(config -> config.version);
+    }
+
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(3)
+    public Object reloadingReader() {
+        return RELOADABLE.get();
+    }
+
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(1)
+    public Object reloadingWriter() {
+        // 写者模拟低频的配置更新
+        Blackhole.consumeCPU(1000);
+        return RELOADABLE.swap(new Config(++version));
+    }
+
+    private static final class Config {
+
+        private final long version;
+
+        private Config(long version) {
+            this.version = version;
+        }
+    }
+}
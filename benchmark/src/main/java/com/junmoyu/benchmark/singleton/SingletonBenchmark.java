@@ -0,0 +1,142 @@
+package com.junmoyu.benchmark.singleton;
+
+import com.junmoyu.singleton.AsyncLazyLoadedSingleton;
+import com.junmoyu.singleton.DoubleCheckLockingSingleton;
+import com.junmoyu.singleton.EagerlySingleton;
+import com.junmoyu.singleton.EnumSingleton;
+import com.junmoyu.singleton.LockFreeLazyLoadedSingleton;
+import com.junmoyu.singleton.StaticInnerClassSingleton;
+import com.junmoyu.singleton.ThreadSafeLazyLoadedSingleton;
+import com.junmoyu.singleton.ThreadUnsafeLazyLoadedSingleton;
+import com.junmoyu.singleton.lazy.SingletonRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单例获取性能对比（热态）：实例在 Setup 中已经创建，只测量 getInstance() 本身的开销
+ * 吞吐量和延迟分布同时输出，线程数通过 -t 指定，或使用 {@link SingletonContentionRunner} 依次运行 1..N 个线程
+ * 运行：java -jar benchmark/target/benchmarks.jar SingletonBenchmark -t 4
+ * <p>
+ * 预期：ThreadSafeLazyLoadedSingleton 每次调用都要获取同一把锁，线程越多吞吐量越低；
+ * 其他实现热态下都只是一次（volatile）读，吞吐量随线程数线性增长
+ * <p>
+ * lockFreeLazy 与 threadSafeLazy（改造前，每次加锁）、doubleCheckLocking（手写双重检查）对比，
+ * registryLookup 额外包含一次注册表查找，asyncTryGet 为就绪后的非阻塞获取（含 Optional 包装）
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonBenchmark {
+
+    private final SingletonRegistry registry = new SingletonRegistry();
+
+    @Setup
+    public void setup() {
+        LockFreeLazyLoadedSingleton.getInstance();
+        AsyncLazyLoadedSingleton.getInstance();
+        registry.get(Object.class, "benchmark", Object::new);
+        EagerlySingleton.getInstance();
+        ThreadUnsafeLazyLoadedSingleton.getInstance();
+        ThreadSafeLazyLoadedSingleton.getInstance();
+        DoubleCheckLockingSingleton.getInstance();
+        StaticInnerClassSingleton.getInstance();
+        EnumSingleton.INSTANCE.getName();
+        com.junmoyu.singleton.serializable.EagerlySingleton.getInstance();
+        com.junmoyu.singleton.serializable.ThreadUnsafeLazyLoadedSingleton.getInstance();
+        com.junmoyu.singleton.serializable.ThreadSafeLazyLoadedSingleton.getInstance();
+        com.junmoyu.singleton.serializable.DoubleCheckLockingSingleton.getInstance();
+        com.junmoyu.singleton.serializable.StaticInnerClassSingleton.getInstance();
+        com.junmoyu.singleton.serializable.EnumSingleton.INSTANCE.getName();
+    }
+
+    @Benchmark
+    public Object eagerly() {
+        return EagerlySingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object threadUnsafeLazy() {
+        return ThreadUnsafeLazyLoadedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object threadSafeLazy() {
+        return ThreadSafeLazyLoadedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object doubleCheckLocking() {
+        return DoubleCheckLockingSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object staticInnerClass() {
+        return StaticInnerClassSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object enumSingleton() {
+        return EnumSingleton.INSTANCE;
+    }
+
+    @Benchmark
+    public Object lockFreeLazy() {
+        return LockFreeLazyLoadedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object registryLookup() {
+        return registry.get(Object.class, "benchmark");
+    }
+
+    @Benchmark
+    public Object asyncTryGet() {
+        return AsyncLazyLoadedSingleton.tryGetInstance();
+    }
+
+    @Benchmark
+    public Object serializableEagerly() {
+        return com.junmoyu.singleton.serializable.EagerlySingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object serializableThreadUnsafeLazy() {
+        return com.junmoyu.singleton.serializable.ThreadUnsafeLazyLoadedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object serializableThreadSafeLazy() {
+        return com.junmoyu.singleton.serializable.ThreadSafeLazyLoadedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object serializableDoubleCheckLocking() {
+        return com.junmoyu.singleton.serializable.DoubleCheckLockingSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object serializableStaticInnerClass() {
+        return com.junmoyu.singleton.serializable.StaticInnerClassSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object serializableEnumSingleton() {
+        return com.junmoyu.singleton.serializable.EnumSingleton.INSTANCE;
+    }
+}
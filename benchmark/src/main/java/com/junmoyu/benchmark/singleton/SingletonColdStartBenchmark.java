@@ -0,0 +1,76 @@
+package com.junmoyu.benchmark.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单例获取性能对比（冷态）：测量首次调用 getInstance() 的耗时，包含类初始化和实例化
+ * 每次迭代前用新的 {@link IsolatedClassLoader} 重新加载单例类，迭代中每个线程只调用一次，
+ * 多线程（-t N）时所有线程同时进行首次调用，反映初始化时的锁竞争
+ * 运行：java -jar benchmark/target/benchmarks.jar SingletonColdStartBenchmark -t 4
+ * <p>
+ * 计时包含一次方法句柄调用，各实现相同，不影响对比
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 500)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonColdStartBenchmark {
+
+    @Param({"EAGERLY", "THREAD_UNSAFE_LAZY", "THREAD_SAFE_LAZY", "DOUBLE_CHECK_LOCKING", "STATIC_INNER_CLASS", "ENUM",
+            "LOCK_FREE_LAZY", "SERIALIZABLE_EAGERLY", "SERIALIZABLE_THREAD_UNSAFE_LAZY", "SERIALIZABLE_THREAD_SAFE_LAZY",
+            "SERIALIZABLE_DOUBLE_CHECK_LOCKING", "SERIALIZABLE_STATIC_INNER_CLASS", "SERIALIZABLE_ENUM"})
+    private SingletonStrategy strategy;
+
+    private PrintStream stdout;
+
+    private MethodHandle getter;
+
+    @Setup(Level.Trial)
+    public void mute() {
+        stdout = SingletonStrategy.muteStdout();
+    }
+
+    @TearDown(Level.Trial)
+    public void unmute() {
+        System.setOut(stdout);
+    }
+
+    /**
+     * 每次迭代加载一份全新的单例类，加载本身不计入耗时
+     */
+    @Setup(Level.Iteration)
+    public void reload() {
+        getter = strategy.getter(new IsolatedClassLoader());
+    }
+
+    @Benchmark
+    public Object firstCall() throws Throwable {
+        try {
+            return (Object) getter.invokeExact();
+        } catch (IllegalStateException e) {
+            // 非线程安全的实现在竞争下会重复实例化，构造方法中的反射防护会抛出异常，同样视为一次完成的调用
+            return e;
+        }
+    }
+}
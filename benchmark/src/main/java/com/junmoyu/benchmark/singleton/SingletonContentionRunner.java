@@ -0,0 +1,113 @@
+package com.junmoyu.benchmark.singleton;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 单例竞争测试：依次以 1、2、4 ... N 个线程运行 {@link SingletonBenchmark}（热态）和
+ * {@link SingletonColdStartBenchmark}（冷态），最后按线程数汇总成表格
+ * 运行：java -cp benchmark/target/benchmarks.jar com.junmoyu.benchmark.singleton.SingletonContentionRunner [最大线程数] [cold]
+ * 最大线程数默认为 CPU 核数的 2 倍；加上 cold 参数时同时运行冷态测试
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SingletonContentionRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        boolean cold = args.length > 1 && "cold".equals(args[1]);
+
+        List<RunResult> warm = new ArrayList<>();
+        List<RunResult> coldResults = new ArrayList<>();
+        for (int threads : threadCounts(maxThreads)) {
+            warm.addAll(run(SingletonBenchmark.class, threads));
+            if (cold) {
+                coldResults.addAll(run(SingletonColdStartBenchmark.class, threads));
+            }
+        }
+
+        System.out.println();
+        System.out.println("热态吞吐量（ops/us，越大越好）");
+        print(warm, "thrpt", false);
+        System.out.println("热态 p99 延迟（ns）");
+        print(warm, "sample", true);
+        if (cold) {
+            System.out.println("冷态首次调用平均耗时（us）");
+            print(coldResults, "ss", false);
+        }
+    }
+
+    private static Collection<RunResult> run(Class<?> benchmark, int threads) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(benchmark.getName() + "\\.")
+                .threads(threads)
+                .build();
+        return new Runner(options).run();
+    }
+
+    /**
+     * 1、2、4 ... 直到 maxThreads，最后一项总是 maxThreads
+     */
+    private static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads <<= 1) {
+            counts.add(threads);
+        }
+        counts.add(Math.max(1, maxThreads));
+        return counts;
+    }
+
+    /**
+     * 每行一个实现，每列一个线程数
+     *
+     * @param mode       JMH 模式的简称
+     * @param percentile 是否输出 p99 而不是平均值
+     */
+    private static void print(List<RunResult> results, String mode, boolean percentile) {
+        Map<String, Map<Integer, Double>> table = new TreeMap<>();
+        TreeMap<Integer, Boolean> columns = new TreeMap<>();
+        for (RunResult result : results) {
+            if (!mode.equals(result.getParams().getMode().shortLabel())) {
+                continue;
+            }
+            String benchmark = result.getParams().getBenchmark();
+            String row = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            String strategy = result.getParams().getParam("strategy");
+            if (strategy != null) {
+                row = strategy;
+            }
+            int threads = result.getParams().getThreads();
+            Result<?> primary = result.getPrimaryResult();
+            // SingletonBenchmark 的时间单位是微秒，单次调用只有几纳秒，p99 换算为纳秒输出
+            double value = percentile ? primary.getStatistics().getPercentile(99) * 1000 : primary.getScore();
+            table.computeIfAbsent(row, k -> new TreeMap<>()).put(threads, value);
+            columns.put(threads, Boolean.TRUE);
+        }
+
+        StringBuilder header = new StringBuilder(String.format("%-36s", "实现"));
+        for (int threads : columns.keySet()) {
+            header.append(String.format("%14s", threads + " 线程"));
+        }
+        System.out.println(header);
+        for (Map.Entry<String, Map<Integer, Double>> row : table.entrySet()) {
+            StringBuilder line = new StringBuilder(String.format("%-36s", row.getKey()));
+            for (int threads : columns.keySet()) {
+                Double value = row.getValue().get(threads);
+                line.append(value == null ? String.format("%14s", "-") : String.format("%14.3f", value));
+            }
+            System.out.println(line);
+        }
+        System.out.println();
+    }
+}
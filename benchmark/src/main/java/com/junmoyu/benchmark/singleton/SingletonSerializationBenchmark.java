@@ -0,0 +1,127 @@
+package com.junmoyu.benchmark.singleton;
+
+import com.junmoyu.singleton.serializable.DoubleCheckLockingSingleton;
+import com.junmoyu.singleton.serializable.EagerlySingleton;
+import com.junmoyu.singleton.serializable.EnumSingleton;
+import com.junmoyu.singleton.serializable.SingletonCodec;
+import com.junmoyu.singleton.serializable.SingletonProxy;
+import com.junmoyu.singleton.serializable.StaticInnerClassSingleton;
+import com.junmoyu.singleton.serializable.ThreadSafeLazyLoadedSingleton;
+import com.junmoyu.singleton.serializable.ThreadUnsafeLazyLoadedSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 可序列化单例的序列化开销：默认 Java 序列化 / Externalizable 序列化代理 / NIO 二进制编码
+ * 每次操作把 serializable 包中的 6 个单例写入同一个流再读回，三种方式读回的都是唯一实例
+ * Java 序列化枚举只写常量名，不带 EnumSingleton 的 name，代理和二进制编码也使用默认的不带状态的方式，三者做的是同样的工作
+ * 启动时打印三种方式的序列化大小
+ * 运行：java -jar benchmark/target/benchmarks.jar SingletonSerializationBenchmark -prof gc
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonSerializationBenchmark {
+
+    private Object[] singletons;
+
+    private byte[] javaBytes;
+    private byte[] proxyBytes;
+    private byte[] codecBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        EnumSingleton.INSTANCE.setName("junmoyu.com");
+        singletons = new Object[]{EagerlySingleton.getInstance(), ThreadUnsafeLazyLoadedSingleton.getInstance(),
+                ThreadSafeLazyLoadedSingleton.getInstance(), DoubleCheckLockingSingleton.getInstance(),
+                StaticInnerClassSingleton.getInstance(), EnumSingleton.INSTANCE};
+        javaBytes = writeJava();
+        proxyBytes = writeProxy();
+        codecBytes = writeCodec();
+        System.out.println();
+        System.out.println("序列化大小（" + singletons.length + " 个单例）：Java 序列化 " + javaBytes.length
+                + " 字节，序列化代理 " + proxyBytes.length + " 字节，二进制编码 " + codecBytes.length + " 字节");
+    }
+
+    @Benchmark
+    public void javaSerialization(Blackhole blackhole) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(writeJava()))) {
+            for (int i = 0; i < singletons.length; i++) {
+                blackhole.consume(is.readObject());
+            }
+        }
+    }
+
+    @Benchmark
+    public void externalizableProxy(Blackhole blackhole) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(writeProxy()))) {
+            for (int i = 0; i < singletons.length; i++) {
+                blackhole.consume(is.readObject());
+            }
+        }
+    }
+
+    @Benchmark
+    public void binaryCodec(Blackhole blackhole) throws IOException {
+        try (SingletonCodec.Reader reader = new SingletonCodec.Reader(
+                Channels.newChannel(new ByteArrayInputStream(writeCodec())))) {
+            for (int i = 0; i < singletons.length; i++) {
+                blackhole.consume(reader.read());
+            }
+        }
+    }
+
+    private byte[] writeJava() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream os = new ObjectOutputStream(bytes)) {
+            for (Object singleton : singletons) {
+                os.writeObject(singleton);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] writeProxy() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream os = new ObjectOutputStream(bytes)) {
+            for (Object singleton : singletons) {
+                os.writeObject(SingletonProxy.of(singleton));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] writeCodec() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (SingletonCodec.Writer writer = new SingletonCodec.Writer(Channels.newChannel(bytes))) {
+            for (Object singleton : singletons) {
+                writer.write(singleton);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.junmoyu.benchmark.singleton;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * singleton 模块中的各种单例实现，用于冷启动基准测试和压力测试
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public enum SingletonStrategy {
+
+    EAGERLY("EagerlySingleton", true),
+    THREAD_UNSAFE_LAZY("ThreadUnsafeLazyLoadedSingleton", false),
+    THREAD_SAFE_LAZY("ThreadSafeLazyLoadedSingleton", true),
+    DOUBLE_CHECK_LOCKING("DoubleCheckLockingSingleton", true),
+    STATIC_INNER_CLASS("StaticInnerClassSingleton", true),
+    ENUM("EnumSingleton", true),
+    LOCK_FREE_LAZY("LockFreeLazyLoadedSingleton", true),
+    SERIALIZABLE_EAGERLY("serializable.EagerlySingleton", true),
+    SERIALIZABLE_THREAD_UNSAFE_LAZY("serializable.ThreadUnsafeLazyLoadedSingleton", false),
+    SERIALIZABLE_THREAD_SAFE_LAZY("serializable.ThreadSafeLazyLoadedSingleton", true),
+    SERIALIZABLE_DOUBLE_CHECK_LOCKING("serializable.DoubleCheckLockingSingleton", true),
+    SERIALIZABLE_STATIC_INNER_CLASS("serializable.StaticInnerClassSingleton", true),
+    SERIALIZABLE_ENUM("serializable.EnumSingleton", true);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class);
+
+    private final String className;
+    private final boolean threadSafe;
+
+    SingletonStrategy(String simpleName, boolean threadSafe) {
+        this.className = "com.junmoyu.singleton." + simpleName;
+        this.threadSafe = threadSafe;
+    }
+
+    /**
+     * 在指定的类加载器中查找获取实例的方法，只加载类，不触发类初始化
+     * 枚举单例读取 INSTANCE 字段，其他单例调用 getInstance()
+     *
+     * @param loader 类加载器，通常是新建的 {@link IsolatedClassLoader}
+     * @return 类型为 ()Object 的方法句柄，可以直接 invokeExact
+     */
+    public MethodHandle getter(ClassLoader loader) {
+        try {
+            Class<?> clazz = Class.forName(className, false, loader);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle handle = clazz.isEnum()
+                    ? lookup.findStaticGetter(clazz, "INSTANCE", clazz)
+                    : lookup.findStatic(clazz, "getInstance", MethodType.methodType(clazz));
+            return handle.asType(GETTER_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法加载单例类：" + className, e);
+        }
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 是否声明为线程安全，非线程安全的实现在压力测试中出现重复实例化属于预期结果
+     *
+     * @return 是否线程安全
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * 单例的构造方法会打印日志，冷启动测试和压力测试中会被调用成千上万次，
+     * 打印既干扰计时又会淹没结果，测试期间把 System.out 替换为空输出
+     *
+     * @return 原来的 System.out，测试结束后通过 System.setOut 恢复
+     */
+    public static PrintStream muteStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        return original;
+    }
+}
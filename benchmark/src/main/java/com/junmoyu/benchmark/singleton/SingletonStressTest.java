@@ -0,0 +1,173 @@
+package com.junmoyu.benchmark.singleton;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单例正确性压力测试，仿照 jcstress 的方式：
+ * 每一轮用新的 {@link IsolatedClassLoader} 加载单例类，让多个常驻的执行线程在同一时刻首次调用 getInstance()，
+ * 统计本轮得到了几个不同的实例、构造方法的反射防护抛出了几次异常，最后按结果分类计数
+ * <p>
+ * 唯一允许的结果是 [实例数=1, 异常数=0]，出现其他结果即说明发生了重复实例化。
+ * ThreadUnsafeLazyLoadedSingleton 出现重复实例化属于预期，其他实现出现时以非 0 状态码退出
+ * 单核机器上执行线程很少能在检查和赋值之间被打断，可能需要更多轮次才能复现
+ * <p>
+ * 运行：java -cp benchmark/target/benchmarks.jar com.junmoyu.benchmark.singleton.SingletonStressTest [轮数] [线程数] [实现...]
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SingletonStressTest {
+
+    private static final String ACCEPTABLE = "[实例数=1, 异常数=0]";
+
+    private final int actors;
+    private final Thread[] threads;
+    private final Object[] results;
+
+    /**
+     * 当前轮次，执行线程看到轮次变化后开始调用
+     */
+    private volatile int round;
+    private volatile MethodHandle getter;
+    private volatile boolean stopped;
+    private final AtomicInteger finished = new AtomicInteger();
+
+    private SingletonStressTest(int actors) {
+        this.actors = actors;
+        this.threads = new Thread[actors];
+        this.results = new Object[actors];
+        for (int i = 0; i < actors; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> act(index), "stress-actor-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int actors = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        List<SingletonStrategy> strategies = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            strategies.add(SingletonStrategy.valueOf(args[i]));
+        }
+        if (strategies.isEmpty()) {
+            strategies.addAll(Arrays.asList(SingletonStrategy.values()));
+        }
+
+        System.out.println("轮数：" + rounds + "，线程数：" + actors);
+        int unexpected = 0;
+        for (SingletonStrategy strategy : strategies) {
+            SingletonStressTest test = new SingletonStressTest(actors);
+            PrintStream stdout = SingletonStrategy.muteStdout();
+            Map<String, Integer> outcomes;
+            try {
+                outcomes = test.run(strategy, rounds);
+            } finally {
+                System.setOut(stdout);
+                test.stop();
+            }
+            if (!report(strategy, outcomes)) {
+                unexpected++;
+            }
+        }
+        System.exit(unexpected);
+    }
+
+    /**
+     * 执行所有轮次
+     *
+     * @return 结果 -> 出现次数
+     */
+    private Map<String, Integer> run(SingletonStrategy strategy, int rounds) {
+        Map<String, Integer> outcomes = new TreeMap<>();
+        for (int r = 0; r < rounds; r++) {
+            Arrays.fill(results, null);
+            finished.set(0);
+            getter = strategy.getter(new IsolatedClassLoader());
+            // 写 round 发布本轮的 getter，所有执行线程同时开始
+            round = r + 1;
+            while (finished.get() < actors) {
+                Thread.yield();
+            }
+            outcomes.merge(outcome(), 1, Integer::sum);
+        }
+        return outcomes;
+    }
+
+    private void act(int index) {
+        int seen = 0;
+        while (!stopped) {
+            int current = round;
+            if (current == seen) {
+                Thread.yield();
+                continue;
+            }
+            seen = current;
+            Object result;
+            try {
+                result = (Object) getter.invokeExact();
+            } catch (Throwable e) {
+                result = e;
+            }
+            results[index] = result;
+            // finished 的自增保证 results 的写入对主线程可见
+            finished.incrementAndGet();
+        }
+    }
+
+    private void stop() {
+        stopped = true;
+    }
+
+    /**
+     * 按引用统计不同实例的数量和异常数量
+     */
+    private String outcome() {
+        List<Object> instances = new ArrayList<>(actors);
+        int errors = 0;
+        for (Object result : results) {
+            if (result instanceof Throwable) {
+                errors++;
+                continue;
+            }
+            boolean seen = false;
+            for (Object instance : instances) {
+                seen |= instance == result;
+            }
+            if (!seen) {
+                instances.add(result);
+            }
+        }
+        return "[实例数=" + instances.size() + ", 异常数=" + errors + "]";
+    }
+
+    /**
+     * 输出结果表格
+     *
+     * @return 结果是否符合预期
+     */
+    private static boolean report(SingletonStrategy strategy, Map<String, Integer> outcomes) {
+        boolean broken = outcomes.size() > 1 || !outcomes.containsKey(ACCEPTABLE);
+        String verdict;
+        if (!broken) {
+            verdict = strategy.isThreadSafe() ? "OK" : "未复现（非线程安全，可增加轮数或线程数）";
+        } else {
+            verdict = strategy.isThreadSafe() ? "FAILED 重复实例化" : "捕获到重复实例化（预期）";
+        }
+        System.out.println();
+        System.out.println(strategy.getClassName() + " -> " + verdict);
+        for (Map.Entry<String, Integer> entry : outcomes.entrySet()) {
+            System.out.printf("  %-24s %10d  %s%n", entry.getKey(), entry.getValue(),
+                    ACCEPTABLE.equals(entry.getKey()) ? "ACCEPTABLE" : "FORBIDDEN");
+        }
+        return !broken || !strategy.isThreadSafe();
+    }
+}
@@ -0,0 +1,68 @@
+package com.junmoyu.benchmark.singleton;
+
+import com.junmoyu.singleton.striped.StripedSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单例可变状态的写入性能对比：加锁的单个对象 / 原子类 / 分片
+ * 每次写入更新两个字段（请求数和字节数），所有线程共享同一个单例
+ * 运行：java -jar benchmark/target/benchmarks.jar StripedSingletonBenchmark -t 8
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StripedSingletonBenchmark {
+
+    private final Stats synchronizedStats = new Stats();
+
+    private final AtomicLong atomicRequests = new AtomicLong();
+    private final AtomicLong atomicBytes = new AtomicLong();
+
+    private final StripedSingleton<Stats> stripedStats = StripedSingleton.of(Stats::new);
+
+    @Benchmark
+    public void synchronizedInstance() {
+        synchronized (synchronizedStats) {
+            synchronizedStats.requests++;
+            synchronizedStats.bytes += 10;
+        }
+    }
+
+    @Benchmark
+    public void atomicFields() {
+        atomicRequests.incrementAndGet();
+        atomicBytes.addAndGet(10);
+    }
+
+    @Benchmark
+    public void striped() {
+        stripedStats.update(shard -> {
+            shard.requests++;
+            shard.bytes += 10;
+        });
+    }
+
+    private static final class Stats {
+        private long requests;
+        private long bytes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.junmoyu.benchmark.template.method;
+
+import com.junmoyu.template.method.util.AccountValidator;
+import com.junmoyu.template.method.util.RegexUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 账号校验性能对比：每次编译正则 / 缓存编译后的正则 / 手写扫描
+ * 运行：java -jar benchmark/target/benchmarks.jar AccountValidatorBenchmark -prof gc
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountValidatorBenchmark {
+
+    /**
+     * 最后一个是长度较长且最终匹配失败的邮箱，用于观察正则回溯的开销
+     */
+    @Param({"13855287421", "example@email.com", "a.b-c.d-e.f-g.h-i.j-k.l-m.n-o.p-q.r-s.t-u.v-w.x-y.z@example"})
+    private String input;
+
+    private boolean mobile;
+
+    @Setup
+    public void setup() {
+        mobile = input.indexOf('@') < 0;
+    }
+
+    @Benchmark
+    public boolean regexCompiledEveryCall() {
+        return Pattern.matches(mobile ? RegexUtils.REGEX_MOBILE : RegexUtils.REGEX_EMAIL, input);
+    }
+
+    @Benchmark
+    public boolean regexCached() {
+        return RegexUtils.isMatch(mobile ? RegexUtils.REGEX_MOBILE : RegexUtils.REGEX_EMAIL, input);
+    }
+
+    @Benchmark
+    public boolean handWrittenScanner() {
+        return mobile ? AccountValidator.isMobile(input) : AccountValidator.isEmail(input);
+    }
+}
@@ -0,0 +1,40 @@
+package com.junmoyu.loadtest.template.method;
+
+import com.junmoyu.template.method.metrics.HistogramSnapshot;
+import com.junmoyu.template.method.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分区间的耗时记录器：每个报告周期换一个新的直方图，同时保留一份累计直方图
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+final class IntervalRecorder {
+
+    private final AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    /**
+     * @param nanos    耗时
+     * @param measured 是否计入累计统计，预热期间为 false
+     */
+    void record(long nanos, boolean measured) {
+        interval.get().record(nanos);
+        if (measured) {
+            total.record(nanos);
+        }
+    }
+
+    /**
+     * 取出当前区间的快照并开始新的区间，切换瞬间的少量记录可能落入上一个区间
+     */
+    HistogramSnapshot nextInterval() {
+        return interval.getAndSet(new LatencyHistogram()).snapshot();
+    }
+
+    HistogramSnapshot total() {
+        return total.snapshot();
+    }
+}
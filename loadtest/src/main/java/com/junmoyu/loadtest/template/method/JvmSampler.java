@@ -0,0 +1,56 @@
+package com.junmoyu.loadtest.template.method;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+/**
+ * 堆内存与 GC 采样，通过 JMX 读取，每次采样返回与上次采样之间的 GC 次数和耗时
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+final class JvmSampler {
+
+    private static final long MB = 1024 * 1024;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long lastGcCount;
+    private long lastGcMillis;
+    private long maxHeapUsed;
+
+    JvmSampler() {
+        sample();
+    }
+
+    String sample() {
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        maxHeapUsed = Math.max(maxHeapUsed, heapUsed);
+        String line = String.format("heap=%dMB gc=%d (%dms)",
+                heapUsed / MB, gcCount - lastGcCount, gcMillis - lastGcMillis);
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+        return line;
+    }
+
+    String summary() {
+        long gcCount = 0;
+        long gcMillis = 0;
+        StringBuilder builder = new StringBuilder();
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+            builder.append(String.format("  %s: %d 次, %dms%n",
+                    collector.getName(), collector.getCollectionCount(), collector.getCollectionTime()));
+        }
+        return String.format("峰值堆内存 %dMB，GC 共 %d 次，累计 %dms%n", maxHeapUsed / MB, gcCount, gcMillis) + builder;
+    }
+}
@@ -0,0 +1,111 @@
+package com.junmoyu.loadtest.template.method;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测配置，通过 key=value 形式的命令行参数覆盖默认值
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class LoadTestConfig {
+
+    /**
+     * 目标到达率，单位 次/秒，每次到达为一次登录尝试
+     */
+    final double rate;
+
+    /**
+     * 压测时长（不含预热），单位秒
+     */
+    final int duration;
+
+    /**
+     * 预热时长，预热期间的请求不计入最终统计，单位秒
+     */
+    final int warmup;
+
+    /**
+     * 报告间隔，单位秒
+     */
+    final int interval;
+
+    /**
+     * 执行请求的线程数，请求按计划时间发出，与线程数无关；线程不足时排队耗时会计入延迟
+     */
+    final int threads;
+
+    /**
+     * 合成账号池大小
+     */
+    final int accounts;
+
+    /**
+     * 邮箱账号占比，其余为手机号
+     */
+    final double emailRatio;
+
+    /**
+     * 校验成功、验证码不存在、验证码不匹配的占比，三者按比例归一化
+     */
+    final double successRatio;
+    final double missRatio;
+    final double mismatchRatio;
+
+    /**
+     * 验证码存储：concurrent / compact / bounded
+     */
+    final String store;
+
+    /**
+     * 随机数种子，相同的种子产生相同的请求序列
+     */
+    final long seed;
+
+    LoadTestConfig(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("参数格式应为 key=value：" + arg);
+            }
+            values.put(arg.substring(0, index), arg.substring(index + 1));
+        }
+        this.rate = Double.parseDouble(take(values, "rate", "10000"));
+        this.duration = Integer.parseInt(take(values, "duration", "60"));
+        this.warmup = Integer.parseInt(take(values, "warmup", "10"));
+        this.interval = Integer.parseInt(take(values, "interval", "5"));
+        this.threads = Integer.parseInt(take(values, "threads", "32"));
+        this.accounts = Integer.parseInt(take(values, "accounts", "5000000"));
+        this.emailRatio = Double.parseDouble(take(values, "emailRatio", "0.3"));
+        double success = Double.parseDouble(take(values, "success", "0.8"));
+        double miss = Double.parseDouble(take(values, "miss", "0.15"));
+        double mismatch = Double.parseDouble(take(values, "mismatch", "0.05"));
+        double total = success + miss + mismatch;
+        if (rate <= 0 || duration <= 0 || interval <= 0 || threads <= 0 || accounts <= 0 || total <= 0) {
+            throw new IllegalArgumentException("rate、duration、interval、threads、accounts 及比例之和必须大于 0");
+        }
+        this.successRatio = success / total;
+        this.missRatio = miss / total;
+        this.mismatchRatio = mismatch / total;
+        this.store = take(values, "store", "concurrent");
+        this.seed = Long.parseLong(take(values, "seed", "42"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("未知参数：" + values.keySet());
+        }
+    }
+
+    private static String take(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%.0f/s duration=%ds warmup=%ds threads=%d accounts=%d emailRatio=%.2f "
+                        + "success=%.2f miss=%.2f mismatch=%.2f store=%s seed=%d",
+                rate, duration, warmup, threads, accounts, emailRatio,
+                successRatio, missRatio, mismatchRatio, store, seed);
+    }
+}
@@ -0,0 +1,32 @@
+package com.junmoyu.loadtest.template.method;
+
+import com.junmoyu.template.method.EmailValidateCode;
+import com.junmoyu.template.method.store.CodeStore;
+
+import java.util.Map;
+
+/**
+ * 不真正发送的邮箱验证码，把验证码放入发件箱，供压测线程模拟用户输入
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+class StubEmailValidateCode extends EmailValidateCode {
+
+    private final Map<String, String> outbox;
+
+    StubEmailValidateCode(CodeStore codeStore, Map<String, String> outbox) {
+        super(codeStore);
+        this.outbox = outbox;
+    }
+
+    @Override
+    public void send(String account, String code) {
+        outbox.put(account, code);
+    }
+
+    @Override
+    public void send(Map<String, String> codes) {
+        outbox.putAll(codes);
+    }
+}
@@ -0,0 +1,33 @@
+package com.junmoyu.loadtest.template.method;
+
+/**
+ * 合成账号 - 由编号直接计算，不占用内存，数百万账号也无需预先生成
+ * 已签发验证码的账号与从未签发过的账号使用不相交的号段，保证“验证码不存在”的请求一定未命中
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+final class SyntheticAccounts {
+
+    private static final long ISSUED_MOBILE_BASE = 13_000_000_000L;
+    private static final long UNKNOWN_MOBILE_BASE = 19_000_000_000L;
+
+    private SyntheticAccounts() {
+    }
+
+    static String mobile(int index) {
+        return String.valueOf(ISSUED_MOBILE_BASE + index);
+    }
+
+    static String unknownMobile(int index) {
+        return String.valueOf(UNKNOWN_MOBILE_BASE + index);
+    }
+
+    static String email(int index) {
+        return "user" + index + "@example.com";
+    }
+
+    static String unknownEmail(int index) {
+        return "nobody" + index + "@example.org";
+    }
+}
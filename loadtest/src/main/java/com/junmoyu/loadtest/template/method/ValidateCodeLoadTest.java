@@ -0,0 +1,218 @@
+package com.junmoyu.loadtest.template.method;
+
+import com.junmoyu.template.method.AbstractValidateCode;
+import com.junmoyu.template.method.event.ValidateCodeEventBus;
+import com.junmoyu.template.method.metrics.HistogramSnapshot;
+import com.junmoyu.template.method.store.BoundedCodeStore;
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.CompactCodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 验证码流程压测 - 开放模型
+ * 请求按固定到达率排好计划时间（第 i 个请求在 start + i / rate 发出），延迟从计划时间开始计算，
+ * 系统卡顿时后续请求的排队时间也计入延迟，不会因为压测线程被阻塞而少发请求（避免协调遗漏）
+ * <p>
+ * 每次到达模拟一次登录尝试，按比例分为三类：
+ * 1. 校验成功：create 后从发件箱取出验证码并校验；
+ * 2. 验证码不匹配：create 后用错误的验证码校验，验证码留在存储中直到过期；
+ * 3. 验证码不存在：对从未签发过验证码的账号直接校验。
+ * 发送使用桩实现，不依赖网络，事件总线不挂日志订阅者
+ * <p>
+ * 运行：java -Xmx2g -jar loadtest/target/loadtest.jar rate=20000 duration=60 accounts=5000000
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ValidateCodeLoadTest {
+
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final LoadTestConfig config;
+    private final AbstractValidateCode sms;
+    private final AbstractValidateCode email;
+    private final Map<String, String> outbox = new ConcurrentHashMap<>();
+
+    private final IntervalRecorder createLatency = new IntervalRecorder();
+    private final IntervalRecorder validateLatency = new IntervalRecorder();
+    private final IntervalRecorder attemptLatency = new IntervalRecorder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder unexpected = new LongAdder();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private long startNanos;
+    private long measureStartNanos;
+    private long endNanos;
+
+    ValidateCodeLoadTest(LoadTestConfig config) {
+        this.config = config;
+        CodeStore store = createStore(config.store);
+        ValidateCodeEventBus eventBus = new ValidateCodeEventBus();
+        this.sms = new StubSmsValidateCode(store, outbox);
+        this.email = new StubEmailValidateCode(store, outbox);
+        this.sms.setEventBus(eventBus);
+        this.email.setEventBus(eventBus);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config = new LoadTestConfig(args);
+        System.out.println("压测配置：" + config);
+        new ValidateCodeLoadTest(config).run();
+    }
+
+    void run() throws InterruptedException {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate);
+        startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(config.warmup);
+        endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(config.duration);
+
+        CountDownLatch finished = new CountDownLatch(config.threads);
+        for (int i = 0; i < config.threads; i++) {
+            SplittableRandom random = new SplittableRandom(config.seed + i);
+            Thread worker = new Thread(() -> {
+                work(periodNanos, random);
+                finished.countDown();
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        JvmSampler jvm = new JvmSampler();
+        System.out.println("   time   rate/s  create p50/p99/max(us)       validate p50/p99/max(us)     attempt p99/p999/max(us)   errors  jvm");
+        long reportNanos = TimeUnit.SECONDS.toNanos(config.interval);
+        long lastCompleted = 0;
+        for (long next = startNanos + reportNanos; !finished.await(Math.max(0, next - System.nanoTime()), TimeUnit.NANOSECONDS); next += reportNanos) {
+            long done = completed.sum();
+            report((next - startNanos) / 1_000_000_000.0, (done - lastCompleted) / (double) config.interval, jvm);
+            lastCompleted = done;
+        }
+
+        System.out.println();
+        System.out.println("=== 汇总（不含 " + config.warmup + " 秒预热）===");
+        System.out.println("create   : " + createLatency.total());
+        System.out.println("validate : " + validateLatency.total());
+        System.out.println("attempt  : " + attemptLatency.total());
+        System.out.println("完成 " + completed.sum() + " 次，异常 " + errors.sum() + " 次，结果与预期不符 " + unexpected.sum() + " 次");
+        System.out.print(jvm.summary());
+    }
+
+    private void work(long periodNanos, SplittableRandom random) {
+        while (true) {
+            long intended = startNanos + sequence.getAndIncrement() * periodNanos;
+            if (intended >= endNanos) {
+                return;
+            }
+            waitUntil(intended);
+            boolean measured = intended >= measureStartNanos;
+            try {
+                attempt(random, intended, measured);
+            } catch (RuntimeException e) {
+                errors.increment();
+            }
+            attemptLatency.record(System.nanoTime() - intended, measured);
+            completed.increment();
+        }
+    }
+
+    /**
+     * parkNanos 唤醒通常会晚几十微秒，离计划时间较远时休眠，临近时让出 CPU 自旋，减少压测工具自身带来的延迟
+     */
+    private static void waitUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            if (wait > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(wait - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 一次登录尝试，create 的耗时从计划时间开始计算，包含排队
+     */
+    private void attempt(SplittableRandom random, long intended, boolean measured) {
+        int index = random.nextInt(config.accounts);
+        boolean useEmail = random.nextDouble() < config.emailRatio;
+        AbstractValidateCode validateCode = useEmail ? email : sms;
+        double kind = random.nextDouble();
+
+        if (kind < config.missRatio) {
+            String account = useEmail ? SyntheticAccounts.unknownEmail(index) : SyntheticAccounts.unknownMobile(index);
+            long start = System.nanoTime();
+            boolean result = validateCode.validate(account, "123456");
+            validateLatency.record(System.nanoTime() - start, measured);
+            check(!result);
+            return;
+        }
+
+        String account = useEmail ? SyntheticAccounts.email(index) : SyntheticAccounts.mobile(index);
+        validateCode.create(account);
+        long created = System.nanoTime();
+        createLatency.record(created - intended, measured);
+
+        String code = outbox.remove(account);
+        boolean success = kind < config.missRatio + config.successRatio;
+        String input = success ? code : wrongCode(code);
+        long start = System.nanoTime();
+        boolean result = validateCode.validate(account, input);
+        validateLatency.record(System.nanoTime() - start, measured);
+        check(result == success);
+    }
+
+    private void check(boolean expected) {
+        if (!expected) {
+            unexpected.increment();
+        }
+    }
+
+    private void report(double seconds, double rate, JvmSampler jvm) {
+        HistogramSnapshot create = createLatency.nextInterval();
+        HistogramSnapshot validate = validateLatency.nextInterval();
+        HistogramSnapshot attempt = attemptLatency.nextInterval();
+        System.out.printf("%6.0fs %8.0f  %8s %8s %10s   %8s %8s %10s   %8s %8s %10s  %6d  %s%n",
+                seconds, rate,
+                micros(create.getPercentileNanos(50)), micros(create.getPercentileNanos(99)), micros(create.getMaxNanos()),
+                micros(validate.getPercentileNanos(50)), micros(validate.getPercentileNanos(99)), micros(validate.getMaxNanos()),
+                micros(attempt.getPercentileNanos(99)), micros(attempt.getPercentileNanos(99.9)), micros(attempt.getMaxNanos()),
+                errors.sum(), jvm.sample());
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    /**
+     * 与正确验证码不同且长度相同的错误验证码
+     */
+    private static String wrongCode(String code) {
+        if (code == null || code.isEmpty()) {
+            return "000000";
+        }
+        char first = code.charAt(0);
+        return (first == '0' ? '1' : '0') + code.substring(1);
+    }
+
+    private static CodeStore createStore(String name) {
+        switch (name) {
+            case "concurrent":
+                return new ConcurrentCodeStore();
+            case "compact":
+                return new CompactCodeStore();
+            case "bounded":
+                return new BoundedCodeStore(1_000_000);
+            default:
+                throw new IllegalArgumentException("未知的存储：" + name);
+        }
+    }
+}
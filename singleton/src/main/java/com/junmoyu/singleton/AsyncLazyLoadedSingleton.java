@@ -0,0 +1,126 @@
+package com.junmoyu.singleton;
+
+import com.junmoyu.singleton.lazy.AsyncLazy;
+
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 懒汉式 - 线程安全，后台异步初始化
+ * 构造方法代价很高时（加载配置、建立连接池等），DoubleCheckLockingSingleton 的锁或
+ * StaticInnerClassSingleton 的类初始化锁会让首批请求线程全部阻塞在 getInstance() 上
+ * 这里在类加载时就在后台线程中开始初始化，调用方可以选择：
+ * <ul>
+ *     <li>{@link #tryGetInstance()}：从不阻塞，未就绪时降级处理</li>
+ *     <li>{@link #getInstanceAsync()}：就绪后回调</li>
+ *     <li>{@link #getInstance()}：阻塞等待</li>
+ * </ul>
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class AsyncLazyLoadedSingleton {
+
+    /**
+     * 模拟的初始化耗时，可通过 -Dsingleton.async.init-millis 修改
+     */
+    private static final long INIT_MILLIS = Long.getLong("singleton.async.init-millis", 500);
+
+    private static final AsyncLazy<AsyncLazyLoadedSingleton> INSTANCE = AsyncLazy.of(AsyncLazyLoadedSingleton::new);
+
+    static {
+        // 类加载时即开始后台初始化，也可以在应用启动时调用 warmUp() 提前触发
+        INSTANCE.start();
+    }
+
+    /**
+     * 私有构造方法
+     */
+    private AsyncLazyLoadedSingleton() {
+        // 防止通过反射进行实例化从而破坏单例
+        // 最好放在开头，如不需要删除即可
+        if (INSTANCE != null && INSTANCE.isInitialized()) {
+            throw new IllegalStateException("Already initialized.");
+        }
+
+        // 模拟加载配置等耗时操作
+        try {
+            TimeUnit.MILLISECONDS.sleep(INIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("初始化被中断", e);
+        }
+        System.out.println(getClass().getCanonicalName() + " 被实例化，hashCode：" + hashCode());
+    }
+
+    /**
+     * 触发类加载，从而开始后台初始化
+     *
+     * @return 初始化的 future
+     */
+    public static CompletableFuture<AsyncLazyLoadedSingleton> warmUp() {
+        return INSTANCE.start();
+    }
+
+    /**
+     * 获取单例实例，从不阻塞
+     *
+     * @return 单例实例，尚未就绪时为空
+     */
+    public static Optional<AsyncLazyLoadedSingleton> tryGetInstance() {
+        return Optional.ofNullable(INSTANCE.tryGet());
+    }
+
+    /**
+     * 异步获取单例实例
+     *
+     * @return 就绪后完成的 future
+     */
+    public static CompletableFuture<AsyncLazyLoadedSingleton> getInstanceAsync() {
+        return INSTANCE.getAsync();
+    }
+
+    /**
+     * 获取单例实例，尚未就绪时阻塞等待
+     *
+     * @return 单例实例
+     */
+    public static AsyncLazyLoadedSingleton getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 后台初始化测试
+        System.out.println("测试代码启动");
+        AsyncLazyLoadedSingleton.warmUp();
+
+        // 非阻塞获取测试：首批请求不会阻塞，未就绪时降级处理
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            new Thread(() -> System.out.println("非阻塞测试：请求 " + index + " -> " + AsyncLazyLoadedSingleton.tryGetInstance()
+                    .map(instance -> "hashCode：@" + instance.hashCode())
+                    .orElse("尚未就绪，降级处理"))).start();
+        }
+
+        // 异步获取测试
+        AsyncLazyLoadedSingleton.getInstanceAsync()
+                .thenAccept(instance -> System.out.println("异步测试：hashCode：" + "@" + instance.hashCode()));
+
+        // 阻塞获取测试
+        System.out.println("阻塞测试：hashCode：" + "@" + AsyncLazyLoadedSingleton.getInstance().hashCode());
+        System.out.println("就绪后非阻塞测试：hashCode：" + "@" + AsyncLazyLoadedSingleton.tryGetInstance().get().hashCode());
+
+        // 反射测试
+        // 通过反射的方式直接调用私有构造器（通过在构造器里抛出异常可以解决此问题）
+        Class<AsyncLazyLoadedSingleton> clazz = (Class<AsyncLazyLoadedSingleton>) Class.forName("com.junmoyu.singleton.AsyncLazyLoadedSingleton");
+        Constructor<AsyncLazyLoadedSingleton> constructor = clazz.getDeclaredConstructor(null);
+
+        AsyncLazyLoadedSingleton singleton1 = constructor.newInstance();
+        AsyncLazyLoadedSingleton singleton2 = constructor.newInstance();
+
+        System.out.println("反射测试：singleton1 hashCode：" + "@" + singleton1.hashCode());
+        System.out.println("反射测试：singleton2 hashCode：" + "@" + singleton2.hashCode());
+    }
+}
@@ -0,0 +1,73 @@
+package com.junmoyu.singleton;
+
+import com.junmoyu.singleton.lazy.Lazy;
+import com.junmoyu.singleton.lazy.SingletonRegistry;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * 懒汉式 - 线程安全，延迟加载，无锁
+ * 延迟加载的逻辑交给通用的 {@link Lazy}：首次调用时通过 CAS 选出唯一的初始化线程，
+ * 实例发布后 getInstance() 只有一次 volatile 读，不像 ThreadSafeLazyLoadedSingleton 每次都要加锁，
+ * 也不用像 DoubleCheckLockingSingleton 那样在每个类中手写双重检查
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class LockFreeLazyLoadedSingleton {
+
+    private static final Lazy<LockFreeLazyLoadedSingleton> INSTANCE = Lazy.of(LockFreeLazyLoadedSingleton::new);
+
+    /**
+     * 私有构造方法
+     */
+    private LockFreeLazyLoadedSingleton() {
+        // 防止通过反射进行实例化从而破坏单例
+        // 最好放在开头，如不需要删除即可
+        if (INSTANCE.isInitialized()) {
+            throw new IllegalStateException("Already initialized.");
+        }
+
+        System.out.println(getClass().getCanonicalName() + " 被实例化，hashCode：" + hashCode());
+    }
+
+    /**
+     * 获取单例实例
+     *
+     * @return 单例实例
+     */
+    public static LockFreeLazyLoadedSingleton getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 延迟加载测试
+        System.out.println("测试代码启动");
+        Thread.sleep(1000);
+
+        // 多线程测试
+        for (int i = 0; i < 10; i++) {
+            new Thread(() -> System.out.println("多线程测试：hashCode：" + "@" + LockFreeLazyLoadedSingleton.getInstance().hashCode())).start();
+        }
+        Thread.sleep(1000);
+
+        // 注册表测试
+        // 同一类型可以按限定名注册多个单例，每个限定名只实例化一次
+        SingletonRegistry registry = SingletonRegistry.getDefault();
+        StringBuilder primary = registry.get(StringBuilder.class, "primary", () -> new StringBuilder("primary"));
+        StringBuilder backup = registry.get(StringBuilder.class, "backup", () -> new StringBuilder("backup"));
+        System.out.println("注册表测试：primary 是否唯一：" + (primary == registry.get(StringBuilder.class, "primary")));
+        System.out.println("注册表测试：primary 与 backup 是否相同：" + (primary == backup));
+
+        // 反射测试
+        // 通过反射的方式直接调用私有构造器（通过在构造器里抛出异常可以解决此问题）
+        Class<LockFreeLazyLoadedSingleton> clazz = (Class<LockFreeLazyLoadedSingleton>) Class.forName("com.junmoyu.singleton.LockFreeLazyLoadedSingleton");
+        Constructor<LockFreeLazyLoadedSingleton> constructor = clazz.getDeclaredConstructor(null);
+
+        LockFreeLazyLoadedSingleton singleton1 = constructor.newInstance();
+        LockFreeLazyLoadedSingleton singleton2 = constructor.newInstance();
+
+        System.out.println("反射测试：singleton1 hashCode：" + "@" + singleton1.hashCode());
+        System.out.println("反射测试：singleton2 hashCode：" + "@" + singleton2.hashCode());
+    }
+}
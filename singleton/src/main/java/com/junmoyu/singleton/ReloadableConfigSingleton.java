@@ -0,0 +1,125 @@
+package com.junmoyu.singleton;
+
+import com.junmoyu.singleton.reload.ReloadableSingleton;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 可热更新的单例 - 线程安全，读无锁
+ * 其他单例在 JVM 生命周期内固定不变，构造方法甚至会主动阻止再次实例化；
+ * 保存配置的单例却经常需要在运行时更新。这里每个实例都是不可变的配置快照，
+ * 更新时创建新实例并通过 {@link ReloadableSingleton} 原子替换，读取只有一次 volatile 读
+ * <p>
+ * 每次热更新都要创建新实例，因此构造方法中不再有反射防护，但构造方法仍然是私有的，只能通过 reload 创建
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ReloadableConfigSingleton implements AutoCloseable {
+
+    private static final ReloadableSingleton<ReloadableConfigSingleton> INSTANCE =
+            ReloadableSingleton.of(new ReloadableConfigSingleton(1, Collections.singletonMap("timeout", "1000")));
+
+    private final long version;
+    private final Map<String, String> properties;
+    private volatile boolean closed;
+
+    /**
+     * 私有构造方法
+     */
+    private ReloadableConfigSingleton(long version, Map<String, String> properties) {
+        this.version = version;
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+        System.out.println(getClass().getCanonicalName() + " 被实例化，版本：" + version + "，hashCode：" + hashCode());
+    }
+
+    /**
+     * 获取当前的配置快照
+     *
+     * @return 单例实例
+     */
+    public static ReloadableConfigSingleton getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * 热更新配置，旧快照在进行中的读者结束后关闭
+     *
+     * @param properties 新配置
+     * @return 新的配置快照
+     */
+    public static ReloadableConfigSingleton reload(Map<String, String> properties) {
+        return INSTANCE.update(old -> new ReloadableConfigSingleton(old.version + 1, properties));
+    }
+
+    /**
+     * 在读临界区内使用配置快照，临界区结束前快照不会被关闭
+     *
+     * @param reader 读取操作
+     * @return 读取操作的结果
+     */
+    public static <R> R read(Function<ReloadableConfigSingleton, R> reader) {
+        return INSTANCE.read(reader);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getProperty(String key) {
+        return properties.get(key);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 旧快照被回收时调用，例如释放按该配置创建的连接
+     */
+    @Override
+    public void close() {
+        closed = true;
+        System.out.println("配置版本 " + version + " 已回收");
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 读取测试
+        System.out.println("当前配置：timeout=" + ReloadableConfigSingleton.getInstance().getProperty("timeout"));
+
+        // 热更新测试：读者在读临界区内不会看到已关闭的快照
+        AtomicLong reads = new AtomicLong();
+        AtomicLong violations = new AtomicLong();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ReloadableConfigSingleton.read(config -> {
+                        if (config.isClosed()) {
+                            violations.incrementAndGet();
+                        }
+                        return reads.incrementAndGet();
+                    });
+                }
+            });
+            readers[i].start();
+        }
+        for (int i = 2; i <= 5; i++) {
+            Thread.sleep(100);
+            Map<String, String> properties = new HashMap<>();
+            properties.put("timeout", String.valueOf(i * 1000));
+            ReloadableConfigSingleton.reload(properties);
+        }
+        for (Thread reader : readers) {
+            reader.interrupt();
+            reader.join();
+        }
+        System.out.println("当前配置：版本 " + ReloadableConfigSingleton.getInstance().getVersion()
+                + "，timeout=" + ReloadableConfigSingleton.getInstance().getProperty("timeout"));
+        System.out.println("读取次数：" + reads.get() + "，读到已关闭快照的次数：" + violations.get());
+    }
+}
@@ -0,0 +1,100 @@
+package com.junmoyu.singleton;
+
+import com.junmoyu.singleton.striped.StripedSingleton;
+
+/**
+ * 枚举的单例实现 - 线程安全，可变状态分片
+ * EnumSingleton 通过 setName 修改单例中的可变状态，实际项目中的单例也常常持有计数器、缓冲区等状态，
+ * 所有线程修改同一个对象时，缓存行竞争会成为瓶颈
+ * 这里把统计数据交给 {@link StripedSingleton}：写入分散到各个线程的分片上，读取时汇总，调用方看到的仍然是一个单例
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public enum StripedEnumSingleton {
+
+    /**
+     * 唯一实例
+     */
+    INSTANCE;
+
+    private final StripedSingleton<Stats> stats = StripedSingleton.of(Stats::new);
+
+    StripedEnumSingleton() {
+        System.out.println(getClass().getCanonicalName() + " 被实例化，hashCode：" + hashCode());
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param bytes 请求的字节数
+     */
+    public void record(long bytes) {
+        stats.update(shard -> {
+            shard.requests++;
+            shard.bytes += bytes;
+        });
+    }
+
+    /**
+     * 请求总数
+     *
+     * @return 所有分片之和
+     */
+    public long getRequests() {
+        return stats.reduce(0L, (sum, shard) -> sum + shard.requests);
+    }
+
+    /**
+     * 请求总字节数
+     *
+     * @return 所有分片之和
+     */
+    public long getBytes() {
+        return stats.reduce(0L, (sum, shard) -> sum + shard.bytes);
+    }
+
+    /**
+     * 当前的分片数量
+     *
+     * @return 分片数量
+     */
+    public int getStripes() {
+        return stats.stripes();
+    }
+
+    /**
+     * 一个分片的统计数据，分片被独占访问，不需要 volatile 或原子类
+     * 两个 long 远小于一条缓存行，前后各填充 56 字节，避免相邻分片的统计数据落在同一缓存行
+     */
+    @SuppressWarnings("unused")
+    private static final class Stats {
+        private long p01, p02, p03, p04, p05, p06, p07;
+        private long requests;
+        private long bytes;
+        private long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 多线程测试
+        int threads = 8;
+        int perThread = 1_000_000;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    StripedEnumSingleton.INSTANCE.record(10);
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // 汇总测试：结果与只有一个对象时相同
+        System.out.println("请求总数：" + StripedEnumSingleton.INSTANCE.getRequests() + "，预期：" + (long) threads * perThread);
+        System.out.println("总字节数：" + StripedEnumSingleton.INSTANCE.getBytes() + "，预期：" + (long) threads * perThread * 10);
+        System.out.println("分片数量：" + StripedEnumSingleton.INSTANCE.getStripes());
+    }
+}
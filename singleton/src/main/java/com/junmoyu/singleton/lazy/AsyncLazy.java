@@ -0,0 +1,176 @@
+package com.junmoyu.singleton.lazy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 异步延迟加载容器 - 线程安全，非阻塞
+ * 适用于创建代价很高的单例（加载配置、建立连接池等）：初始化在后台线程中进行，调用方可以
+ * <ul>
+ *     <li>{@link #tryGet()}：从不阻塞，未就绪时返回 null，由调用方降级处理</li>
+ *     <li>{@link #getAsync()}：返回 CompletableFuture，就绪后回调</li>
+ *     <li>{@link #get()}：阻塞等待，与 {@link Lazy#get()} 相同</li>
+ * </ul>
+ * 以上方法都会在尚未开始时触发初始化；初始化失败后 future 异常完成，下一次调用会重新开始
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class AsyncLazy<T> implements Supplier<T> {
+
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    /**
+     * 默认为每次初始化启动一个守护线程，初始化通常只有一次，不值得维护线程池
+     */
+    private static final Executor NEW_DAEMON_THREAD = task -> {
+        Thread thread = new Thread(task, "async-singleton-init-" + THREAD_INDEX.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private final Supplier<? extends T> supplier;
+    private final Executor executor;
+
+    /**
+     * 进行中或已完成的初始化，为 null 表示尚未开始或上一次失败
+     */
+    private final AtomicReference<CompletableFuture<T>> future = new AtomicReference<>();
+
+    /**
+     * 已发布的实例，tryGet 的快速路径只读这个字段
+     */
+    private volatile T value;
+
+    private AsyncLazy(Supplier<? extends T> supplier, Executor executor) {
+        this.supplier = supplier;
+        this.executor = executor;
+    }
+
+    /**
+     * 创建异步延迟加载容器，在新的守护线程中初始化
+     *
+     * @param supplier 创建实例的方法，不能返回 null
+     * @return 异步延迟加载容器
+     */
+    public static <T> AsyncLazy<T> of(Supplier<? extends T> supplier) {
+        return of(supplier, NEW_DAEMON_THREAD);
+    }
+
+    /**
+     * 创建异步延迟加载容器
+     *
+     * @param supplier 创建实例的方法，不能返回 null
+     * @param executor 执行初始化的线程池，初始化可能是阻塞操作，不建议使用 ForkJoinPool.commonPool()
+     * @return 异步延迟加载容器
+     */
+    public static <T> AsyncLazy<T> of(Supplier<? extends T> supplier, Executor executor) {
+        if (supplier == null || executor == null) {
+            throw new IllegalArgumentException("supplier 和 executor 不能为空");
+        }
+        return new AsyncLazy<>(supplier, executor);
+    }
+
+    /**
+     * 开始后台初始化，已经开始或已经完成时直接返回
+     *
+     * @return 初始化的 future
+     */
+    public CompletableFuture<T> start() {
+        CompletableFuture<T> current = future.get();
+        if (current != null) {
+            return current;
+        }
+        CompletableFuture<T> created = new CompletableFuture<>();
+        if (!future.compareAndSet(null, created)) {
+            return future.get();
+        }
+        try {
+            executor.execute(() -> initialize(created));
+        } catch (RuntimeException e) {
+            // 线程池拒绝执行
+            fail(created, e);
+        }
+        return created;
+    }
+
+    /**
+     * 获取实例，从不阻塞
+     *
+     * @return 实例，尚未就绪时返回 null（并确保初始化已经开始）
+     */
+    public T tryGet() {
+        T v = value;
+        if (v == null) {
+            start();
+        }
+        return v;
+    }
+
+    /**
+     * 异步获取实例
+     *
+     * @return 就绪后完成的 future；初始化失败时异常完成
+     */
+    public CompletableFuture<T> getAsync() {
+        return start();
+    }
+
+    /**
+     * 阻塞获取实例
+     *
+     * @return 实例
+     * @throws CompletionException 初始化失败时抛出，cause 为原始异常
+     */
+    @Override
+    public T get() {
+        T v = value;
+        return v != null ? v : start().join();
+    }
+
+    /**
+     * 是否已经完成初始化
+     *
+     * @return 实例是否已发布
+     */
+    public boolean isInitialized() {
+        return value != null;
+    }
+
+    private void initialize(CompletableFuture<T> target) {
+        T v;
+        try {
+            v = supplier.get();
+            if (v == null) {
+                throw new IllegalStateException("单例创建方法不能返回 null");
+            }
+        } catch (Throwable e) {
+            fail(target, e);
+            return;
+        }
+        // 先发布实例再完成 future，回调中的 tryGet 一定能拿到实例
+        value = v;
+        target.complete(v);
+    }
+
+    /**
+     * 失败时清除 future，下一次调用重新开始初始化
+     */
+    private void fail(CompletableFuture<T> target, Throwable error) {
+        future.compareAndSet(target, null);
+        target.completeExceptionally(error);
+    }
+
+    @Override
+    public String toString() {
+        T v = value;
+        if (v != null) {
+            return "AsyncLazy[" + v + "]";
+        }
+        return future.get() == null ? "AsyncLazy[未开始]" : "AsyncLazy[初始化中]";
+    }
+}
@@ -0,0 +1,160 @@
+package com.junmoyu.singleton.lazy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * 通用的延迟加载容器 - 线程安全，无锁
+ * 用 CAS 状态机保证只初始化一次：未初始化 -> 初始化中 -> 已发布
+ * <ul>
+ *     <li>实例发布后，get() 只有一次 volatile 读（acquire）和判空，不加锁，也不写任何共享变量</li>
+ *     <li>只有抢到 CAS 的线程执行初始化，其他线程在该容器自己的栅栏上等待，互不影响</li>
+ *     <li>初始化抛出异常时回到未初始化状态，下次调用会重新尝试</li>
+ * </ul>
+ * 项目按 JDK 8 编译，因此用 AtomicReferenceFieldUpdater 代替 VarHandle
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Lazy, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(Lazy.class, Object.class, "value");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Lazy, Initializing> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Lazy.class, Initializing.class, "state");
+
+    /**
+     * 已发布的实例，发布前为 null
+     */
+    private volatile Object value;
+
+    /**
+     * 初始化中的标记，为 null 表示没有线程在初始化
+     */
+    private volatile Initializing state;
+
+    private volatile Supplier<? extends T> supplier;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * 创建延迟加载容器
+     *
+     * @param supplier 创建实例的方法，只会被成功调用一次，不能返回 null
+     * @return 延迟加载容器
+     */
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("supplier 不能为空");
+        }
+        return new Lazy<>(supplier);
+    }
+
+    /**
+     * 获取实例，首次调用时创建
+     *
+     * @return 实例
+     * @throws IllegalStateException 创建方法返回 null，或在创建过程中再次获取同一实例（循环依赖）
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object v = value;
+        return v != null ? (T) v : initialize();
+    }
+
+    /**
+     * 是否已经完成初始化
+     *
+     * @return 实例是否已发布
+     */
+    public boolean isInitialized() {
+        return value != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T initialize() {
+        Thread current = Thread.currentThread();
+        for (; ; ) {
+            Object v = value;
+            if (v != null) {
+                return (T) v;
+            }
+            Initializing pending = state;
+            if (pending == null) {
+                Initializing mine = new Initializing(current);
+                if (STATE.compareAndSet(this, null, mine)) {
+                    return create(mine);
+                }
+                continue;
+            }
+            if (pending.owner == current) {
+                throw new IllegalStateException("单例初始化过程中再次获取自身，存在循环依赖");
+            }
+            pending.await();
+        }
+    }
+
+    private T create(Initializing mine) {
+        try {
+            // 抢到 CAS 后再检查一次，避免前一个初始化线程发布实例后又重复创建
+            @SuppressWarnings("unchecked")
+            T v = (T) value;
+            if (v != null) {
+                return v;
+            }
+            v = supplier.get();
+            if (v == null) {
+                throw new IllegalStateException("单例创建方法不能返回 null");
+            }
+            // release 写，读线程的 volatile 读可以看到实例构造完成后的状态
+            VALUE.lazySet(this, v);
+            // 实例发布后不再需要创建方法，释放其引用的对象
+            supplier = null;
+            return v;
+        } finally {
+            // 清除初始化标记：成功时实例已发布，失败时允许后续调用重试
+            STATE.set(this, null);
+            mine.latch.countDown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        Object v = value;
+        return v != null ? "Lazy[" + v + "]" : "Lazy[未初始化]";
+    }
+
+    /**
+     * 初始化中的标记，记录初始化线程并让其他线程等待
+     */
+    private static final class Initializing {
+
+        private final Thread owner;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private Initializing(Thread owner) {
+            this.owner = owner;
+        }
+
+        private void await() {
+            boolean interrupted = false;
+            while (latch.getCount() > 0) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
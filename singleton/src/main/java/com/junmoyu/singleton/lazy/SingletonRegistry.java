@@ -0,0 +1,164 @@
+package com.junmoyu.singleton.lazy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 单例注册表 - 线程安全，无全局锁
+ * 按类型和限定名保存 {@link Lazy}，同一类型可以通过不同的限定名注册多个实例
+ * <p>
+ * 查找使用 ConcurrentHashMap 的无锁读，实例的创建在各自的 Lazy 中进行，
+ * 不会占用 Map 的桶锁，一个实例初始化缓慢不会阻塞其他实例的获取
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SingletonRegistry {
+
+    /**
+     * 默认限定名
+     */
+    public static final String DEFAULT_QUALIFIER = "";
+
+    private static final SingletonRegistry DEFAULT = new SingletonRegistry();
+
+    private final ConcurrentMap<Key, Lazy<?>> instances = new ConcurrentHashMap<>();
+
+    /**
+     * 全局共享的注册表
+     *
+     * @return 注册表
+     */
+    public static SingletonRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册单例，已经注册过的类型和限定名保持原来的创建方法
+     *
+     * @param type      类型
+     * @param qualifier 限定名
+     * @param supplier  创建实例的方法，首次获取时调用
+     * @return 该类型和限定名对应的延迟加载容器，可以保存下来直接调用，省去每次查找
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Lazy<T> register(Class<T> type, String qualifier, Supplier<? extends T> supplier) {
+        Key key = new Key(type, qualifier);
+        Lazy<?> lazy = instances.get(key);
+        if (lazy == null) {
+            Lazy<?> created = Lazy.of(() -> type.cast(supplier.get()));
+            lazy = instances.putIfAbsent(key, created);
+            if (lazy == null) {
+                lazy = created;
+            }
+        }
+        return (Lazy<T>) lazy;
+    }
+
+    /**
+     * 获取单例，未注册时用 supplier 注册
+     *
+     * @param type     类型
+     * @param supplier 创建实例的方法
+     * @return 实例
+     */
+    public <T> T get(Class<T> type, Supplier<? extends T> supplier) {
+        return get(type, DEFAULT_QUALIFIER, supplier);
+    }
+
+    /**
+     * 获取单例，未注册时用 supplier 注册
+     *
+     * @param type      类型
+     * @param qualifier 限定名
+     * @param supplier  创建实例的方法
+     * @return 实例
+     */
+    public <T> T get(Class<T> type, String qualifier, Supplier<? extends T> supplier) {
+        return register(type, qualifier, supplier).get();
+    }
+
+    /**
+     * 获取已注册的单例
+     *
+     * @param type 类型
+     * @return 实例
+     * @throws IllegalStateException 未注册时抛出
+     */
+    public <T> T get(Class<T> type) {
+        return get(type, DEFAULT_QUALIFIER);
+    }
+
+    /**
+     * 获取已注册的单例
+     *
+     * @param type      类型
+     * @param qualifier 限定名
+     * @return 实例
+     * @throws IllegalStateException 未注册时抛出
+     */
+    public <T> T get(Class<T> type, String qualifier) {
+        Lazy<?> lazy = instances.get(new Key(type, qualifier));
+        if (lazy == null) {
+            throw new IllegalStateException("单例未注册：" + type.getName() + (qualifier.isEmpty() ? "" : "#" + qualifier));
+        }
+        return type.cast(lazy.get());
+    }
+
+    /**
+     * 是否已注册
+     *
+     * @param type      类型
+     * @param qualifier 限定名
+     * @return 是否已注册（不代表已经初始化）
+     */
+    public boolean contains(Class<?> type, String qualifier) {
+        return instances.containsKey(new Key(type, qualifier));
+    }
+
+    /**
+     * 已注册的数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * 类型 + 限定名
+     */
+    private static final class Key {
+
+        private final Class<?> type;
+        private final String qualifier;
+        private final int hash;
+
+        private Key(Class<?> type, String qualifier) {
+            if (type == null || qualifier == null) {
+                throw new IllegalArgumentException("type 和 qualifier 不能为空");
+            }
+            this.type = type;
+            this.qualifier = qualifier;
+            this.hash = type.hashCode() * 31 + qualifier.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return type == key.type && qualifier.equals(key.qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
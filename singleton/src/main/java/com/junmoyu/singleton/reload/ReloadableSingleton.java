@@ -0,0 +1,210 @@
+package com.junmoyu.singleton.reload;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 可热更新的单例 - 线程安全，读无锁，仿照 RCU（读-复制-更新）
+ * 单例保存的是不可变的快照，更新时创建新快照并原子地替换，不修改旧快照
+ * <ul>
+ *     <li>{@link #get()}：一次 volatile 读，开销与饿汉式单例相同，适用于不需要释放资源的快照（旧快照交给 GC）</li>
+ *     <li>{@link #read(Function)}：登记为进行中的读者，保证读取期间快照不会被回收（例如持有连接池的快照）</li>
+ *     <li>{@link #swap(Object)} / {@link #reload(Supplier)} / {@link #update(UnaryOperator)}：写者串行执行，
+ *     发布新快照后等待旧快照上进行中的读者全部结束（宽限期），再执行回收操作</li>
+ * </ul>
+ * 进行中的读者用一对只增不减的 LongAdder（进入数、退出数）统计，先读退出数、再读进入数，两者相等即说明没有读者，
+ * 单调计数不会像增减同一个计数器那样在并发求和时得到错误的 0
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ReloadableSingleton<T> {
+
+    /**
+     * 默认的回收操作：快照实现了 AutoCloseable 时关闭
+     */
+    private static final Consumer<Object> CLOSE = instance -> {
+        if (instance instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) instance).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("回收旧实例失败：" + instance, e);
+            }
+        }
+    };
+
+    private final Consumer<? super T> retirer;
+
+    /**
+     * 当前快照及其读者计数，供 read 和写者使用
+     */
+    private volatile Version<T> current;
+
+    /**
+     * 当前实例，与 current.instance 相同，单独保存使 get() 只有一次读取
+     */
+    private volatile T instance;
+
+    /**
+     * 写锁，只在写者之间互斥，读者从不获取
+     */
+    private final Object writeLock = new Object();
+
+    private ReloadableSingleton(T initial, Consumer<? super T> retirer) {
+        this.current = new Version<>(checkNotNull(initial));
+        this.instance = initial;
+        this.retirer = retirer;
+    }
+
+    /**
+     * 创建可热更新的单例，旧实例实现了 AutoCloseable 时在宽限期后关闭
+     *
+     * @param initial 初始实例
+     * @return 可热更新的单例
+     */
+    public static <T> ReloadableSingleton<T> of(T initial) {
+        return of(initial, CLOSE);
+    }
+
+    /**
+     * 创建可热更新的单例
+     *
+     * @param initial 初始实例
+     * @param retirer 旧实例的回收操作，在宽限期结束后由写者线程调用
+     * @return 可热更新的单例
+     */
+    public static <T> ReloadableSingleton<T> of(T initial, Consumer<? super T> retirer) {
+        if (retirer == null) {
+            throw new IllegalArgumentException("retirer 不能为空");
+        }
+        return new ReloadableSingleton<>(initial, retirer);
+    }
+
+    /**
+     * 获取当前实例，只有一次 volatile 读
+     * 返回的实例在替换后可能被回收，需要释放资源的实例请使用 {@link #read(Function)}
+     *
+     * @return 当前实例
+     */
+    public T get() {
+        return instance;
+    }
+
+    /**
+     * 在读临界区内使用当前实例，临界区结束前该实例不会被回收
+     *
+     * @param reader 读取操作，不要在其中调用写方法，否则写者会等待自己
+     * @return 读取操作的结果
+     */
+    public <R> R read(Function<? super T, ? extends R> reader) {
+        for (; ; ) {
+            Version<T> version = current;
+            version.entered.increment();
+            try {
+                // 登记之后再确认一次，没有在宽限期开始后进入旧快照
+                if (version == current) {
+                    return reader.apply(version.instance);
+                }
+            } finally {
+                version.exited.increment();
+            }
+        }
+    }
+
+    /**
+     * 替换为新实例，等待旧实例上的读者结束后回收旧实例
+     *
+     * @param instance 新实例
+     * @return 被替换的旧实例（已回收）
+     */
+    public T swap(T instance) {
+        checkNotNull(instance);
+        synchronized (writeLock) {
+            return publish(new Version<>(instance));
+        }
+    }
+
+    /**
+     * 创建新实例并替换
+     *
+     * @param supplier 创建新实例的方法，在写锁内调用
+     * @return 被替换的旧实例（已回收）
+     */
+    public T reload(Supplier<? extends T> supplier) {
+        synchronized (writeLock) {
+            return publish(new Version<>(checkNotNull(supplier.get())));
+        }
+    }
+
+    /**
+     * 基于当前实例创建新实例并替换，多个写者之间不会丢失更新
+     *
+     * @param updater 根据旧实例创建新实例，不能修改旧实例
+     * @return 新实例
+     */
+    public T update(UnaryOperator<T> updater) {
+        synchronized (writeLock) {
+            T next = checkNotNull(updater.apply(current.instance));
+            publish(new Version<>(next));
+            return next;
+        }
+    }
+
+    private T publish(Version<T> next) {
+        Version<T> previous = current;
+        current = next;
+        instance = next.instance;
+        previous.awaitReaders();
+        retirer.accept(previous.instance);
+        return previous.instance;
+    }
+
+    private static <T> T checkNotNull(T instance) {
+        if (instance == null) {
+            throw new IllegalArgumentException("instance 不能为空");
+        }
+        return instance;
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadableSingleton[" + current.instance + "]";
+    }
+
+    /**
+     * 一个快照及其读者计数
+     */
+    private static final class Version<T> {
+
+        private final T instance;
+        private final LongAdder entered = new LongAdder();
+        private final LongAdder exited = new LongAdder();
+
+        private Version(T instance) {
+            this.instance = instance;
+        }
+
+        /**
+         * 宽限期：等待所有在替换前进入的读者退出
+         */
+        private void awaitReaders() {
+            for (int spins = 0; ; spins++) {
+                // 必须先读退出数：退出数只会追上进入数，反过来读可能把进行中的读者漏掉
+                long out = exited.sum();
+                if (out == entered.sum()) {
+                    return;
+                }
+                if (spins < 100) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                }
+            }
+        }
+    }
+}
@@ -36,16 +36,20 @@ public enum EnumSingleton {
 
     public static void main(String[] args) throws Exception {
         // 反序列化测试
-        // 将对象写入文件
-        ObjectOutputStream os = new ObjectOutputStream(new FileOutputStream("tempFile"));
+        // 将对象写入临时文件，使用缓冲流，避免每个字段都直接写入文件
+        File file = File.createTempFile("singleton", ".ser");
+        file.deleteOnExit();
         EnumSingleton osInstance = EnumSingleton.INSTANCE;
         System.out.println("反序列化测试：osInstance hashCode：" + "@" + osInstance.hashCode());
-        os.writeObject(osInstance);
+        try (ObjectOutputStream os = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            os.writeObject(osInstance);
+        }
 
         // 从文件中读取对象
-        File file = new File("tempFile");
-        ObjectInputStream is = new ObjectInputStream(new FileInputStream(file));
-        EnumSingleton isInstance = (EnumSingleton) is.readObject();
+        EnumSingleton isInstance;
+        try (ObjectInputStream is = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            isInstance = (EnumSingleton) is.readObject();
+        }
         // 查看 hashCode 是否相同
         System.out.println("反序列化测试：isInstance hashCode：" + "@" + isInstance.hashCode());
     }
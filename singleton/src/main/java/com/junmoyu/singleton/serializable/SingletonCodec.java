@@ -0,0 +1,346 @@
+package com.junmoyu.singleton.serializable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 单例的二进制编码 - 紧凑、快速
+ * 默认的 Java 序列化会为每个类写出完整的类描述（类名、serialVersionUID、字段表），再通过 readResolve 换回唯一实例
+ * 单例反序列化后总是换回唯一实例，真正需要写出的只有“是哪个单例”以及少量状态，这里每个单例只占 1 个字节的类型标记，
+ * EnumSingleton 再加上长度前缀的 UTF-8 字符串保存 name
+ * <p>
+ * 状态默认既不写出也不恢复，与 Java 序列化枚举时只写常量名相同：解码不会修改进程中唯一实例的状态。
+ * 需要把状态带到另一个进程时，写入和读取都要显式开启：{@code new Writer(channel, true)} / {@code new Reader(channel, true)}，
+ * 开启恢复后解码会覆盖唯一实例当前的 name，所有持有该实例的代码都会看到变化；name 为 null 时不写出，也不会被恢复
+ * <p>
+ * 格式：
+ * <pre>
+ * | 魔数 4 字节 | 版本 1 字节 | 记录... |
+ * 记录：| 类型 1 字节 | [状态长度 2 字节 | 状态 UTF-8] |
+ * </pre>
+ * 通过 {@link Writer} / {@link Reader} 在 NIO 通道上读写，内部使用缓冲区批量读写（堆内缓冲区，读写器通常是短生命周期的，
+ * 每次分配直接内存反而更慢，FileChannel 会复用线程内缓存的直接内存）；
+ * 解码得到的总是 getInstance() 返回的唯一实例，与 readResolve 的保证相同
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class SingletonCodec {
+
+    /**
+     * "SGLT"
+     */
+    private static final int MAGIC = 0x53474C54;
+    private static final byte VERSION = 1;
+    /**
+     * 单例的记录只有几个字节，缓冲区不需要很大，读写器每次创建都会分配
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * 状态的最大字节数，保证一条记录（类型 + 长度 + 状态）一定能放进缓冲区
+     */
+    private static final int MAX_STATE_BYTES = BUFFER_SIZE - 3;
+
+    static final byte EAGERLY = 1;
+    static final byte THREAD_UNSAFE_LAZY = 2;
+    static final byte THREAD_SAFE_LAZY = 3;
+    static final byte DOUBLE_CHECK_LOCKING = 4;
+    static final byte STATIC_INNER_CLASS = 5;
+    static final byte ENUM = 6;
+
+    private SingletonCodec() {
+    }
+
+    /**
+     * 单例的类型标记
+     *
+     * @throws IllegalArgumentException 不支持的类型
+     */
+    static byte tagOf(Object singleton) {
+        if (singleton instanceof EagerlySingleton) {
+            return EAGERLY;
+        } else if (singleton instanceof ThreadUnsafeLazyLoadedSingleton) {
+            return THREAD_UNSAFE_LAZY;
+        } else if (singleton instanceof ThreadSafeLazyLoadedSingleton) {
+            return THREAD_SAFE_LAZY;
+        } else if (singleton instanceof DoubleCheckLockingSingleton) {
+            return DOUBLE_CHECK_LOCKING;
+        } else if (singleton instanceof StaticInnerClassSingleton) {
+            return STATIC_INNER_CLASS;
+        } else if (singleton instanceof EnumSingleton) {
+            return ENUM;
+        }
+        throw new IllegalArgumentException("不支持的单例类型：" + (singleton == null ? null : singleton.getClass().getName()));
+    }
+
+    /**
+     * 单例的状态，没有状态时返回 null
+     */
+    static String stateOf(Object singleton) {
+        return singleton instanceof EnumSingleton ? ((EnumSingleton) singleton).getName() : null;
+    }
+
+    /**
+     * 根据类型标记取得唯一实例，state 不为 null 时写回状态
+     *
+     * @param state 需要恢复的状态，为 null 时不修改唯一实例
+     * @throws StreamCorruptedException 未知的类型标记
+     */
+    static Object resolve(byte tag, String state) throws StreamCorruptedException {
+        switch (tag) {
+            case EAGERLY:
+                return EagerlySingleton.getInstance();
+            case THREAD_UNSAFE_LAZY:
+                return ThreadUnsafeLazyLoadedSingleton.getInstance();
+            case THREAD_SAFE_LAZY:
+                return ThreadSafeLazyLoadedSingleton.getInstance();
+            case DOUBLE_CHECK_LOCKING:
+                return DoubleCheckLockingSingleton.getInstance();
+            case STATIC_INNER_CLASS:
+                return StaticInnerClassSingleton.getInstance();
+            case ENUM:
+                if (state != null) {
+                    EnumSingleton.INSTANCE.setName(state);
+                }
+                return EnumSingleton.INSTANCE;
+            default:
+                throw new StreamCorruptedException("未知的单例类型：" + tag);
+        }
+    }
+
+    /**
+     * 写入通道，调用 {@link #flush()} 或 {@link #close()} 后数据才会真正写出
+     */
+    public static final class Writer implements Closeable {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final boolean writeState;
+
+        /**
+         * 只写出类型标记，不写出状态
+         *
+         * @param channel 目标通道，close 时一并关闭
+         */
+        public Writer(WritableByteChannel channel) {
+            this(channel, false);
+        }
+
+        /**
+         * @param channel    目标通道，close 时一并关闭
+         * @param writeState 是否写出 EnumSingleton 的 name
+         */
+        public Writer(WritableByteChannel channel, boolean writeState) {
+            this.channel = channel;
+            this.writeState = writeState;
+            buffer.putInt(MAGIC).put(VERSION);
+        }
+
+        /**
+         * 写入一个单例
+         *
+         * @param singleton 单例
+         * @throws IOException 写入失败
+         */
+        public void write(Object singleton) throws IOException {
+            byte tag = tagOf(singleton);
+            if (tag != ENUM) {
+                ensureRemaining(1);
+                buffer.put(tag);
+                return;
+            }
+            String state = writeState ? stateOf(singleton) : null;
+            byte[] bytes = state == null ? null : state.getBytes(StandardCharsets.UTF_8);
+            if (bytes != null && bytes.length > MAX_STATE_BYTES) {
+                throw new IllegalArgumentException("单例状态过长：" + bytes.length + " 字节");
+            }
+            ensureRemaining(3 + (bytes == null ? 0 : bytes.length));
+            buffer.put(tag);
+            // 长度 0xFFFF 表示没有状态
+            buffer.putShort((short) (bytes == null ? 0xFFFF : bytes.length));
+            if (bytes != null) {
+                buffer.put(bytes);
+            }
+        }
+
+        /**
+         * 把缓冲区中的数据写入通道
+         *
+         * @throws IOException 写入失败
+         */
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 从通道读取
+     */
+    public static final class Reader implements Closeable {
+
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final boolean restoreState;
+        private boolean eof;
+
+        /**
+         * 只解码出唯一实例，忽略流中的状态
+         *
+         * @param channel 来源通道，close 时一并关闭
+         * @throws IOException 读取失败或不是单例编码的数据，此时通道已被关闭
+         */
+        public Reader(ReadableByteChannel channel) throws IOException {
+            this(channel, false);
+        }
+
+        /**
+         * @param channel      来源通道，close 时一并关闭
+         * @param restoreState 是否把流中的状态写回唯一实例
+         * @throws IOException 读取失败或不是单例编码的数据，此时通道已被关闭
+         */
+        public Reader(ReadableByteChannel channel, boolean restoreState) throws IOException {
+            this.channel = channel;
+            this.restoreState = restoreState;
+            buffer.flip();
+            try {
+                if (!fill(5) || buffer.getInt() != MAGIC) {
+                    throw new StreamCorruptedException("不是单例编码的数据");
+                }
+                byte version = buffer.get();
+                if (version != VERSION) {
+                    throw new StreamCorruptedException("不支持的版本：" + version);
+                }
+            } catch (IOException e) {
+                // 构造失败时调用方拿不到 Reader，无法关闭通道，只能在这里关闭
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 读取下一个单例
+         *
+         * @return 唯一实例，没有更多数据时返回 null
+         * @throws IOException 读取失败或数据损坏
+         */
+        public Object read() throws IOException {
+            if (!fill(1)) {
+                return null;
+            }
+            byte tag = buffer.get();
+            if (tag != ENUM) {
+                return resolve(tag, null);
+            }
+            require(2);
+            int length = buffer.getShort() & 0xFFFF;
+            if (length == 0xFFFF) {
+                return resolve(tag, null);
+            }
+            if (length > MAX_STATE_BYTES) {
+                throw new StreamCorruptedException("单例状态过长：" + length + " 字节");
+            }
+            require(length);
+            if (!restoreState) {
+                buffer.position(buffer.position() + length);
+                return resolve(tag, null);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return resolve(tag, new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        private void require(int bytes) throws IOException {
+            if (!fill(bytes)) {
+                throw new EOFException("单例记录不完整");
+            }
+        }
+
+        /**
+         * 保证缓冲区中至少有指定字节数的未读数据
+         *
+         * @return 数据已结束且不足时返回 false
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes && !eof) {
+                eof = channel.read(buffer) < 0;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 编码测试：写入临时文件
+        File file = File.createTempFile("singleton", ".bin");
+        file.deleteOnExit();
+        EnumSingleton.INSTANCE.setName("junmoyu.com");
+        Object[] singletons = {EagerlySingleton.getInstance(), DoubleCheckLockingSingleton.getInstance(),
+                StaticInnerClassSingleton.getInstance(), EnumSingleton.INSTANCE};
+        try (Writer writer = new Writer(FileChannel.open(file.toPath(), StandardOpenOption.WRITE), true)) {
+            for (Object singleton : singletons) {
+                writer.write(singleton);
+            }
+        }
+        System.out.println("编码测试：" + singletons.length + " 个单例共 " + file.length() + " 字节");
+
+        // 解码测试：得到的是同一个实例，默认不修改状态
+        EnumSingleton.INSTANCE.setName("君莫语");
+        try (Reader reader = new Reader(FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            for (Object singleton : singletons) {
+                Object decoded = reader.read();
+                System.out.println("解码测试：" + decoded.getClass().getSimpleName() + " 是否为同一实例：" + (decoded == singleton));
+            }
+        }
+        System.out.println("解码测试：默认不恢复状态，EnumSingleton name：" + EnumSingleton.INSTANCE.getName());
+
+        // 开启恢复后状态被写回
+        try (Reader reader = new Reader(FileChannel.open(file.toPath(), StandardOpenOption.READ), true)) {
+            while (reader.read() != null) {
+                // 读取全部记录
+            }
+        }
+        System.out.println("解码测试：开启恢复状态，EnumSingleton name：" + EnumSingleton.INSTANCE.getName());
+    }
+}
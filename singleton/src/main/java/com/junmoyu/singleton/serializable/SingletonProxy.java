@@ -0,0 +1,87 @@
+package com.junmoyu.singleton.serializable;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+
+/**
+ * 单例的序列化代理 - 用于必须走 Java 序列化（ObjectOutputStream）的场景
+ * 所有单例共用这一个 Externalizable 类，流中只写一次它的类描述，每个单例只写 {@link SingletonCodec} 的类型标记和状态，
+ * 不再写出各个单例类自己的类描述；反序列化时通过 readResolve 换回唯一实例
+ * <p>
+ * 用法：os.writeObject(SingletonProxy.of(singleton))，读取时 is.readObject() 得到的直接就是单例
+ * <p>
+ * 与 Java 序列化枚举相同，{@link #of(Object)} 不携带状态，反序列化不会修改唯一实例；
+ * 需要恢复 EnumSingleton 的 name 时使用 {@link #withState(Object)}，反序列化时会覆盖唯一实例当前的 name
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class SingletonProxy implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private byte tag;
+    private String state;
+
+    /**
+     * Externalizable 要求的公共无参构造方法，仅供反序列化使用
+     */
+    public SingletonProxy() {
+    }
+
+    private SingletonProxy(byte tag, String state) {
+        this.tag = tag;
+        this.state = state;
+    }
+
+    /**
+     * 创建单例的序列化代理，不携带状态
+     *
+     * @param singleton serializable 包中的单例
+     * @return 序列化代理
+     */
+    public static SingletonProxy of(Object singleton) {
+        return new SingletonProxy(SingletonCodec.tagOf(singleton), null);
+    }
+
+    /**
+     * 创建携带状态的序列化代理，反序列化时把状态写回唯一实例
+     *
+     * @param singleton serializable 包中的单例
+     * @return 序列化代理
+     */
+    public static SingletonProxy withState(Object singleton) {
+        return new SingletonProxy(SingletonCodec.tagOf(singleton), SingletonCodec.stateOf(singleton));
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(tag);
+        if (tag == SingletonCodec.ENUM) {
+            out.writeBoolean(state != null);
+            if (state != null) {
+                out.writeUTF(state);
+            }
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        tag = in.readByte();
+        if (tag == SingletonCodec.ENUM && in.readBoolean()) {
+            state = in.readUTF();
+        }
+    }
+
+    /**
+     * 反序列化后换回唯一实例
+     *
+     * @return 单例实例
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return SingletonCodec.resolve(tag, state);
+    }
+}
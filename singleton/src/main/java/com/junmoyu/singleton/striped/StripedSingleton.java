@@ -0,0 +1,301 @@
+package com.junmoyu.singleton.striped;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分片的单例状态 - 线程安全
+ * 单例中保存计数器、缓冲区等可变状态时，所有核心都在修改同一个对象，同一缓存行在核心之间来回失效，
+ * 竞争本身就成了瓶颈。这里参照 LongAdder 的做法：
+ * <ul>
+ *     <li>逻辑上仍然是一个单例，内部按线程探针（probe）把修改分散到多个分片上</li>
+ *     <li>没有竞争时只有一个分片；抢占分片失败（说明有竞争）时换一个探针，仍然冲突则加倍分片，最多到 CPU 核数</li>
+ *     <li>每个分片前后填充 64 字节，效果同 @Contended，避免相邻分片落在同一缓存行（伪共享）</li>
+ *     <li>分片在使用期间被独占，分片对象本身不需要是线程安全的</li>
+ *     <li>分片锁不可重入：不要在 update、apply、reduce、forEach 的操作中再次访问同一个实例，等待自己持有的分片时抛出 IllegalStateException</li>
+ * </ul>
+ * 填充只作用于 Cell 本身（锁和对状态的引用），状态对象 T 由 factory 在堆上另行创建。
+ * 创建时每个 T 之后紧跟着它的 Cell，Cell 的填充把相邻分片的 T 隔开，但 GC 复制对象后可能把它们挪到一起；
+ * 频繁修改的小对象（例如只有一个 long 字段）应自带填充，或让每个 T 本身不小于一条缓存行
+ * 读取通过 {@link #reduce(Object, BiFunction)} 汇总所有分片，与 LongAdder.sum() 一样不是全局原子快照
+ * <p>
+ * 分片之间的状态必须可以合并，例如计数、求和、最大值、追加到各自的缓冲区等
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class StripedSingleton<T> {
+
+    /**
+     * 分片数量上限
+     */
+    private static final int MAX_STRIPES = tableSizeFor(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 换探针后仍然冲突多少次就自旋等待，而不是继续换
+     */
+    private static final int MAX_COLLISIONS = 3;
+
+    /**
+     * 线程探针，所有 StripedSingleton 共享，作用同 Thread.threadLocalRandomProbe
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{probeSeed()});
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<StripedSingleton> RESIZING =
+            AtomicIntegerFieldUpdater.newUpdater(StripedSingleton.class, "resizing");
+
+    private final Supplier<? extends T> factory;
+
+    private volatile Cell<T>[] cells;
+
+    /**
+     * 扩容锁，0 表示空闲
+     */
+    private volatile int resizing;
+
+    @SuppressWarnings("unchecked")
+    private StripedSingleton(Supplier<? extends T> factory) {
+        this.factory = factory;
+        this.cells = (Cell<T>[]) new Cell<?>[]{new Cell<>(factory.get())};
+    }
+
+    /**
+     * 创建分片的单例状态
+     *
+     * @param factory 创建一个空分片，扩容时也会调用
+     * @return 分片的单例状态
+     */
+    public static <T> StripedSingleton<T> of(Supplier<? extends T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory 不能为空");
+        }
+        return new StripedSingleton<>(factory);
+    }
+
+    /**
+     * 在当前线程的分片上执行修改，执行期间独占该分片
+     *
+     * @param action 修改操作，应当很短，不要在其中阻塞，也不要再访问同一个实例
+     */
+    public void update(Consumer<? super T> action) {
+        Cell<T> cell = acquire();
+        try {
+            action.accept(cell.value);
+        } finally {
+            cell.unlock();
+        }
+    }
+
+    /**
+     * 在当前线程的分片上执行操作并返回结果，执行期间独占该分片
+     *
+     * @param action 操作，应当很短，不要在其中阻塞，也不要再访问同一个实例
+     * @return 操作的结果
+     */
+    public <R> R apply(Function<? super T, ? extends R> action) {
+        Cell<T> cell = acquire();
+        try {
+            return action.apply(cell.value);
+        } finally {
+            cell.unlock();
+        }
+    }
+
+    /**
+     * 按当前线程的探针选择分片并加锁，没有竞争时只有一次 CAS
+     *
+     * @return 已加锁的分片
+     */
+    private Cell<T> acquire() {
+        int[] probe = PROBE.get();
+        Cell<T>[] cs = cells;
+        Cell<T> cell = cs[probe[0] & (cs.length - 1)];
+        return cell.tryLock() ? cell : contended(probe);
+    }
+
+    /**
+     * 汇总所有分片，逐个分片加锁读取
+     *
+     * @param identity    初始值
+     * @param accumulator 把一个分片合并到结果中
+     * @return 汇总结果
+     */
+    public <R> R reduce(R identity, BiFunction<R, ? super T, R> accumulator) {
+        R result = identity;
+        for (Cell<T> cell : cells) {
+            cell.lock();
+            try {
+                result = accumulator.apply(result, cell.value);
+            } finally {
+                cell.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 依次访问所有分片，例如清零
+     *
+     * @param action 操作
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (Cell<T> cell : cells) {
+            cell.lock();
+            try {
+                action.accept(cell.value);
+            } finally {
+                cell.unlock();
+            }
+        }
+    }
+
+    /**
+     * 当前的分片数量
+     *
+     * @return 分片数量
+     */
+    public int stripes() {
+        return cells.length;
+    }
+
+    /**
+     * 发生冲突：先换探针重试，连续冲突时尝试扩容，已达上限时在选中的分片上等待
+     *
+     * @return 已加锁的分片
+     */
+    private Cell<T> contended(int[] probe) {
+        int collisions = 0;
+        for (; ; ) {
+            int h = probe[0] = advanceProbe(probe[0]);
+            Cell<T>[] cs = cells;
+            Cell<T> cell = cs[h & (cs.length - 1)];
+            if (cell.tryLock()) {
+                return cell;
+            }
+            if (++collisions < MAX_COLLISIONS) {
+                continue;
+            }
+            if (cs.length < MAX_STRIPES && resizing == 0 && RESIZING.compareAndSet(this, 0, 1)) {
+                try {
+                    if (cells == cs) {
+                        cells = grow(cs);
+                    }
+                } finally {
+                    resizing = 0;
+                }
+                collisions = 0;
+                continue;
+            }
+            cell.lock();
+            return cell;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cell<T>[] grow(Cell<T>[] cs) {
+        Cell<T>[] next = (Cell<T>[]) new Cell<?>[cs.length << 1];
+        System.arraycopy(cs, 0, next, 0, cs.length);
+        for (int i = cs.length; i < next.length; i++) {
+            // 先创建状态再创建 Cell，使 Cell 的填充落在相邻分片的状态之间
+            T value = factory.get();
+            next[i] = new Cell<>(value);
+        }
+        return next;
+    }
+
+    private static int probeSeed() {
+        int seed = ThreadLocalRandom.current().nextInt();
+        return seed == 0 ? 1 : seed;
+    }
+
+    /**
+     * xorshift 伪随机，与 ThreadLocalRandom.advanceProbe 相同
+     */
+    private static int advanceProbe(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+    private static int tableSizeFor(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    @Override
+    public String toString() {
+        return "StripedSingleton{stripes=" + cells.length + '}';
+    }
+
+    /**
+     * 左侧填充，子类的字段排在父类之后，从而与前一个对象的字段隔开一条缓存行
+     */
+    @SuppressWarnings("unused")
+    abstract static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * 分片的锁和状态
+     */
+    abstract static class CellFields<T> extends LeftPadding {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<CellFields> BUSY =
+                AtomicIntegerFieldUpdater.newUpdater(CellFields.class, "busy");
+
+        volatile int busy;
+        final T value;
+
+        /**
+         * 持有锁的线程，只由持有者自己写入，用于检测重入
+         */
+        Thread owner;
+
+        CellFields(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 分片，右侧填充与后一个对象隔开
+     */
+    @SuppressWarnings("unused")
+    static final class Cell<T> extends CellFields<T> {
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        Cell(T value) {
+            super(value);
+        }
+
+        boolean tryLock() {
+            if (busy == 0 && BUSY.compareAndSet(this, 0, 1)) {
+                owner = Thread.currentThread();
+                return true;
+            }
+            return false;
+        }
+
+        void lock() {
+            if (owner == Thread.currentThread()) {
+                // 自旋锁不可重入，继续等待会永远等下去
+                throw new IllegalStateException("分片锁不可重入，不能在操作中再次访问同一个 StripedSingleton");
+            }
+            while (!tryLock()) {
+                Thread.yield();
+            }
+        }
+
+        void unlock() {
+            owner = null;
+            // release 写，分片中的修改对下一个加锁的线程可见
+            BUSY.lazySet(this, 0);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.junmoyu.singleton.warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * 单例启动预热 - 按依赖关系并行初始化单例
+ * 饿汉式在类加载时初始化，懒汉式在首次使用时初始化，两者都无法控制启动耗时；
+ * 单例之间存在依赖时，逐个初始化的总耗时是所有单例耗时之和
+ * <p>
+ * 这里先扫描标注了 {@link WarmUp} 的单例（也可以手动注册），根据 dependsOn 构建依赖图并检查循环依赖，
+ * 然后在 ForkJoinPool 上按拓扑顺序执行：一个单例的所有依赖完成后立即开始初始化，互不依赖的单例并行执行，
+ * 总耗时缩短为依赖图中最长路径（关键路径）的耗时。完成后返回 {@link WarmUpReport} 时间线
+ * <p>
+ * 初始化通常包含 I/O 等阻塞操作，通过 ForkJoinPool.managedBlock 执行，阻塞期间线程池会补充线程，
+ * 不会因为少数慢初始化占满并行度
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SingletonWarmUp {
+
+    private final ClassLoader classLoader;
+    private final Map<Class<?>, Node> nodes = new LinkedHashMap<>();
+
+    public SingletonWarmUp() {
+        this(SingletonWarmUp.class.getClassLoader());
+    }
+
+    /**
+     * @param classLoader 扫描和初始化单例使用的类加载器
+     */
+    public SingletonWarmUp(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 扫描包（含子包）下标注了 {@link WarmUp} 的类，支持目录和 jar 包
+     * 扫描时只加载类，不触发类初始化
+     *
+     * @param packageName 包名
+     * @return this
+     */
+    public SingletonWarmUp scan(String packageName) {
+        String path = packageName.replace('.', '/');
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                for (String className : listClasses(url, path)) {
+                    Class<?> type = load(className);
+                    if (type != null && type.isAnnotationPresent(WarmUp.class)) {
+                        register(type);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("扫描单例失败：" + packageName, e);
+        }
+        return this;
+    }
+
+    /**
+     * 注册单例，依赖和获取实例的方法取自 {@link WarmUp} 注解，没有注解时调用静态的 getInstance()
+     *
+     * @param type 单例类型
+     * @return this
+     */
+    public SingletonWarmUp register(Class<?> type) {
+        WarmUp warmUp = type.getAnnotation(WarmUp.class);
+        String method = warmUp == null ? "getInstance" : warmUp.method();
+        Class<?>[] dependsOn = warmUp == null ? new Class<?>[0] : warmUp.dependsOn();
+        return register(type, () -> initialize(type, method), dependsOn);
+    }
+
+    /**
+     * 注册单例
+     *
+     * @param type        单例类型，作为依赖图中的节点
+     * @param initializer 初始化方法，例如 XxxSingleton::getInstance
+     * @param dependsOn   依赖的单例
+     * @return this
+     */
+    public SingletonWarmUp register(Class<?> type, Runnable initializer, Class<?>... dependsOn) {
+        if (type == null || initializer == null) {
+            throw new IllegalArgumentException("type 和 initializer 不能为空");
+        }
+        nodes.put(type, new Node(type, initializer, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    /**
+     * 在新建的 ForkJoinPool 上预热，并行度为 CPU 核数，完成后关闭线程池
+     *
+     * @return 预热报告
+     */
+    public WarmUpReport run() {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 预热所有已注册的单例，等待全部完成（或失败）后返回
+     * 某个单例初始化失败时，依赖它的单例不再初始化，在报告中记为失败
+     *
+     * @param pool 执行初始化的线程池
+     * @return 预热报告
+     * @throws IllegalStateException 依赖未注册或存在循环依赖
+     */
+    public WarmUpReport run(ForkJoinPool pool) {
+        List<Node> order = sort();
+        Queue<WarmUpReport.Entry> entries = new ConcurrentLinkedQueue<>();
+        Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        long start = System.nanoTime();
+        for (Node node : order) {
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[node.dependsOn.size()];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = futures.get(node.dependsOn.get(i));
+            }
+            futures.put(node.type, CompletableFuture.allOf(dependencies).handleAsync((ignored, error) -> {
+                if (error != null) {
+                    long now = System.nanoTime() - start;
+                    entries.add(new WarmUpReport.Entry(node.type, node.dependsOn, now, now,
+                            Thread.currentThread().getName(), unwrap(error)));
+                    throw new CompletionException(unwrap(error));
+                }
+                execute(node, start, entries);
+                return null;
+            }, pool));
+        }
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+        return new WarmUpReport(new ArrayList<>(entries), System.nanoTime() - start);
+    }
+
+    /**
+     * 拓扑排序（Kahn 算法），同时检查依赖是否都已注册、是否存在循环依赖
+     */
+    List<Node> sort() {
+        Map<Class<?>, Integer> inDegree = new HashMap<>();
+        Map<Class<?>, List<Node>> dependents = new HashMap<>();
+        for (Node node : nodes.values()) {
+            inDegree.put(node.type, node.dependsOn.size());
+            for (Class<?> dependency : node.dependsOn) {
+                if (!nodes.containsKey(dependency)) {
+                    throw new IllegalStateException("单例 " + node.type.getName() + " 依赖的 " + dependency.getName() + " 未注册");
+                }
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(node);
+            }
+        }
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : nodes.values()) {
+            if (node.dependsOn.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        List<Node> order = new ArrayList<>(nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            order.add(node);
+            for (Node dependent : dependents.getOrDefault(node.type, Collections.emptyList())) {
+                if (inDegree.merge(dependent.type, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < nodes.size()) {
+            throw new IllegalStateException("单例依赖存在循环：" + findCycle(inDegree));
+        }
+        return order;
+    }
+
+    /**
+     * 从未能排序的节点中找出一个环，用于错误信息
+     */
+    private String findCycle(Map<Class<?>, Integer> inDegree) {
+        Class<?> current = null;
+        for (Map.Entry<Class<?>, Integer> entry : inDegree.entrySet()) {
+            if (entry.getValue() > 0) {
+                current = entry.getKey();
+                break;
+            }
+        }
+        // 未排序的节点至少有一个依赖也未排序，沿着这样的依赖一直走，必然回到走过的节点
+        Set<Class<?>> visited = new LinkedHashSet<>();
+        while (visited.add(current)) {
+            for (Class<?> dependency : nodes.get(current).dependsOn) {
+                if (inDegree.get(dependency) > 0) {
+                    current = dependency;
+                    break;
+                }
+            }
+        }
+        StringBuilder cycle = new StringBuilder();
+        boolean inCycle = false;
+        for (Class<?> type : visited) {
+            inCycle |= type == current;
+            if (inCycle) {
+                cycle.append(type.getSimpleName()).append(" -> ");
+            }
+        }
+        return cycle.append(current.getSimpleName()).toString();
+    }
+
+    private static void execute(Node node, long start, Queue<WarmUpReport.Entry> entries) {
+        long begin = System.nanoTime() - start;
+        Throwable error = null;
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean done;
+
+                @Override
+                public boolean block() {
+                    node.initializer.run();
+                    done = true;
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return done;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e;
+        } catch (RuntimeException | Error e) {
+            error = e;
+        }
+        entries.add(new WarmUpReport.Entry(node.type, node.dependsOn, begin, System.nanoTime() - start,
+                Thread.currentThread().getName(), error));
+        if (error != null) {
+            throw new CompletionException(error);
+        }
+    }
+
+    /**
+     * 调用静态的获取实例方法，没有该方法时触发类初始化（饿汉式、枚举）
+     */
+    private void initialize(Class<?> type, String methodName) {
+        try {
+            Method method = findStaticMethod(type, methodName);
+            if (method == null) {
+                Class.forName(type.getName(), true, classLoader);
+                return;
+            }
+            method.setAccessible(true);
+            method.invoke(null);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("单例初始化失败：" + type.getName(), cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("单例初始化失败：" + type.getName(), e);
+        }
+    }
+
+    private static Method findStaticMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getDeclaredMethod(name);
+            return Modifier.isStatic(method.getModifiers()) ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 缺少可选依赖的类，跳过
+            return null;
+        }
+    }
+
+    private static List<String> listClasses(URL url, String path) throws IOException {
+        List<String> classes = new ArrayList<>();
+        if ("file".equals(url.getProtocol())) {
+            listClasses(new File(URLDecoder.decode(url.getFile(), "UTF-8")), path, classes);
+        } else if ("jar".equals(url.getProtocol())) {
+            URLConnection connection = url.openConnection();
+            connection.setUseCaches(false);
+            try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                Enumeration<JarEntry> jarEntries = jar.entries();
+                while (jarEntries.hasMoreElements()) {
+                    String name = jarEntries.nextElement().getName();
+                    if (name.startsWith(path + "/") && isClassFile(name)) {
+                        classes.add(toClassName(name));
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static void listClasses(File directory, String path, List<String> classes) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = path + "/" + file.getName();
+            if (file.isDirectory()) {
+                listClasses(file, name, classes);
+            } else if (isClassFile(name)) {
+                classes.add(toClassName(name));
+            }
+        }
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.endsWith("package-info.class") && !name.endsWith("module-info.class");
+    }
+
+    private static String toClassName(String name) {
+        return name.substring(0, name.length() - ".class".length()).replace('/', '.');
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * 依赖图中的节点
+     */
+    static final class Node {
+
+        private final Class<?> type;
+        private final Runnable initializer;
+        private final List<Class<?>> dependsOn;
+
+        private Node(Class<?> type, Runnable initializer, List<Class<?>> dependsOn) {
+            this.type = type;
+            this.initializer = initializer;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
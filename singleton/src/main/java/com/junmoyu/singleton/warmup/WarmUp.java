@@ -0,0 +1,34 @@
+package com.junmoyu.singleton.warmup;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在启动时预热的单例，由 {@link SingletonWarmUp#scan(String)} 发现
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WarmUp {
+
+    /**
+     * 依赖的单例，这些单例初始化完成后才会初始化当前单例
+     * 依赖的类也必须被扫描到或手动注册
+     *
+     * @return 依赖的单例类型
+     */
+    Class<?>[] dependsOn() default {};
+
+    /**
+     * 获取实例的静态无参方法，找不到时退化为触发类初始化（适用于饿汉式和枚举）
+     *
+     * @return 方法名
+     */
+    String method() default "getInstance";
+}
@@ -0,0 +1,126 @@
+package com.junmoyu.singleton.warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动预热示例：5 个互相依赖的单例
+ * <pre>
+ * ConfigCenter(200ms) ──┬── DataSourcePool(300ms) ──┬── OrderService(50ms)
+ *                       └── LocalCache(150ms) ──────┘
+ * MetricsRegistry(100ms)
+ * </pre>
+ * 逐个初始化需要 800ms，并行预热只需要关键路径 ConfigCenter -> DataSourcePool -> OrderService 的 550ms
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class WarmUpExample {
+
+    public static void main(String[] args) {
+        // 扫描并预热
+        System.out.println("测试代码启动");
+        WarmUpReport report = new SingletonWarmUp().scan(WarmUpExample.class.getPackage().getName()).run();
+        report.print(System.out);
+
+        // 预热后首次获取不再有初始化开销
+        long start = System.nanoTime();
+        OrderService.getInstance();
+        System.out.println("预热后获取 OrderService 耗时：" + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) + " us");
+
+        // 循环依赖测试
+        try {
+            new SingletonWarmUp()
+                    .register(ConfigCenter.class, ConfigCenter::getInstance, OrderService.class)
+                    .register(DataSourcePool.class, DataSourcePool::getInstance, ConfigCenter.class)
+                    .register(OrderService.class, OrderService::getInstance, DataSourcePool.class)
+                    .run();
+        } catch (IllegalStateException e) {
+            System.out.println("循环依赖测试：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 模拟初始化耗时
+     */
+    private static void simulate(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @WarmUp
+    static class ConfigCenter {
+
+        private static final ConfigCenter INSTANCE = new ConfigCenter();
+
+        private ConfigCenter() {
+            simulate(200);
+        }
+
+        static ConfigCenter getInstance() {
+            return INSTANCE;
+        }
+    }
+
+    @WarmUp
+    static class MetricsRegistry {
+
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+        private MetricsRegistry() {
+            simulate(100);
+        }
+
+        static MetricsRegistry getInstance() {
+            return INSTANCE;
+        }
+    }
+
+    @WarmUp(dependsOn = ConfigCenter.class)
+    static class DataSourcePool {
+
+        private static final DataSourcePool INSTANCE = new DataSourcePool();
+
+        private DataSourcePool() {
+            ConfigCenter.getInstance();
+            simulate(300);
+        }
+
+        static DataSourcePool getInstance() {
+            return INSTANCE;
+        }
+    }
+
+    @WarmUp(dependsOn = ConfigCenter.class)
+    static class LocalCache {
+
+        private static final LocalCache INSTANCE = new LocalCache();
+
+        private LocalCache() {
+            ConfigCenter.getInstance();
+            simulate(150);
+        }
+
+        static LocalCache getInstance() {
+            return INSTANCE;
+        }
+    }
+
+    @WarmUp(dependsOn = {DataSourcePool.class, LocalCache.class})
+    static class OrderService {
+
+        private static final OrderService INSTANCE = new OrderService();
+
+        private OrderService() {
+            DataSourcePool.getInstance();
+            LocalCache.getInstance();
+            simulate(50);
+        }
+
+        static OrderService getInstance() {
+            return INSTANCE;
+        }
+    }
+}
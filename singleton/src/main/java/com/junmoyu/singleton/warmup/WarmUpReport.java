@@ -0,0 +1,197 @@
+package com.junmoyu.singleton.warmup;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热报告：每个单例的初始化时间线和关键路径
+ * 关键路径是决定总耗时的依赖链，缩短其中任意一个单例的初始化时间才能缩短启动时间
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class WarmUpReport {
+
+    private static final int CHART_WIDTH = 50;
+
+    private final List<Entry> entries;
+    private final long totalNanos;
+    private final Map<Class<?>, Entry> byType = new LinkedHashMap<>();
+
+    WarmUpReport(List<Entry> entries, long totalNanos) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::getStartNanos));
+        this.entries = Collections.unmodifiableList(sorted);
+        this.totalNanos = totalNanos;
+        for (Entry entry : sorted) {
+            byType.put(entry.type, entry);
+        }
+    }
+
+    /**
+     * 按开始时间排序的时间线
+     *
+     * @return 每个单例的初始化记录
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * 预热总耗时（墙钟时间）
+     *
+     * @return 耗时，单位毫秒
+     */
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    /**
+     * 所有单例初始化耗时之和，与总耗时之比即为实际的并行度
+     *
+     * @return 耗时，单位毫秒
+     */
+    public long getSumMillis() {
+        long sum = 0;
+        for (Entry entry : entries) {
+            sum += entry.getDurationNanos();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(sum);
+    }
+
+    public boolean isSuccessful() {
+        for (Entry entry : entries) {
+            if (entry.error != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 关键路径：从最后完成的单例开始，沿着最晚完成的依赖向前回溯
+     *
+     * @return 按初始化顺序排列的关键路径
+     */
+    public List<Entry> getCriticalPath() {
+        Entry last = null;
+        for (Entry entry : entries) {
+            if (last == null || entry.endNanos > last.endNanos) {
+                last = entry;
+            }
+        }
+        List<Entry> path = new ArrayList<>();
+        for (Entry current = last; current != null; ) {
+            path.add(current);
+            Entry latest = null;
+            for (Class<?> dependency : current.dependencies) {
+                Entry candidate = byType.get(dependency);
+                if (candidate != null && (latest == null || candidate.endNanos > latest.endNanos)) {
+                    latest = candidate;
+                }
+            }
+            current = latest;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * 输出时间线图
+     *
+     * @param out 输出流
+     */
+    public void print(PrintStream out) {
+        out.println("单例预热时间线，总耗时 " + getTotalMillis() + " ms，初始化耗时合计 " + getSumMillis() + " ms");
+        int nameWidth = 10;
+        for (Entry entry : entries) {
+            nameWidth = Math.max(nameWidth, entry.getName().length());
+        }
+        double scale = totalNanos == 0 ? 0 : (double) CHART_WIDTH / totalNanos;
+        for (Entry entry : entries) {
+            int begin = (int) (entry.startNanos * scale);
+            int end = Math.max(begin + 1, (int) Math.ceil(entry.endNanos * scale));
+            StringBuilder bar = new StringBuilder();
+            for (int i = 0; i < CHART_WIDTH; i++) {
+                bar.append(i >= begin && i < end ? (entry.error == null ? '#' : 'x') : '.');
+            }
+            out.printf("%-" + nameWidth + "s |%s| %6d ms  +%-6d %s%s%n", entry.getName(), bar,
+                    TimeUnit.NANOSECONDS.toMillis(entry.getDurationNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(entry.startNanos), entry.thread,
+                    entry.error == null ? "" : "  失败：" + entry.error);
+        }
+        StringBuilder path = new StringBuilder("关键路径：");
+        for (Entry entry : getCriticalPath()) {
+            if (path.length() > 5) {
+                path.append(" -> ");
+            }
+            path.append(entry.getName()).append('(')
+                    .append(TimeUnit.NANOSECONDS.toMillis(entry.getDurationNanos())).append(" ms)");
+        }
+        out.println(path);
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{singletons=" + entries.size() + ", totalMillis=" + getTotalMillis()
+                + ", sumMillis=" + getSumMillis() + ", successful=" + isSuccessful() + '}';
+    }
+
+    /**
+     * 单个单例的初始化记录，时间均相对于预热开始
+     */
+    public static final class Entry {
+
+        private final Class<?> type;
+        private final List<Class<?>> dependencies;
+        private final long startNanos;
+        private final long endNanos;
+        private final String thread;
+        private final Throwable error;
+
+        Entry(Class<?> type, List<Class<?>> dependencies, long startNanos, long endNanos, String thread, Throwable error) {
+            this.type = type;
+            this.dependencies = dependencies;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.thread = thread;
+            this.error = error;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getName() {
+            String name = type.getName();
+            return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * 初始化失败的原因，依赖失败导致未执行时为依赖的异常
+         *
+         * @return 异常，成功时为 null
+         */
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
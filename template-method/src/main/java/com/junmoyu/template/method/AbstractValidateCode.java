@@ -1,9 +1,24 @@
 package com.junmoyu.template.method;
 
-import com.junmoyu.template.method.util.StringUtils;
+import com.junmoyu.template.method.event.ValidateCodeEventBus;
+import com.junmoyu.template.method.event.ValidateCodeEventType;
+import com.junmoyu.template.method.limit.RateLimiter;
+import com.junmoyu.template.method.metrics.Step;
+import com.junmoyu.template.method.metrics.ValidateCodeMetrics;
+import com.junmoyu.template.method.send.SendPipeline;
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+import com.junmoyu.template.method.util.ByteSequence;
 
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * 验证码抽象类
@@ -14,10 +29,73 @@ import java.util.Map;
  */
 public abstract class AbstractValidateCode {
 
+    /**
+     * 默认的验证码存储，所有未指定存储的子类共享
+     */
+    private static final CodeStore DEFAULT_CODE_STORE = new ConcurrentCodeStore();
+
+    /**
+     * 默认的验证码有效期：5 分钟
+     */
+    private static final long DEFAULT_EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * 默认的批量处理大小
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * 是否默认开启监控，可通过 -Dtemplate.method.metrics=true 开启
+     */
+    private static final boolean METRICS_ENABLED_BY_DEFAULT = Boolean.getBoolean("template.method.metrics");
+
+    /**
+     * 每个线程复用的缓冲区视图：账号、验证码
+     */
+    private static final ThreadLocal<ByteSequence[]> BYTE_VIEWS =
+            ThreadLocal.withInitial(() -> new ByteSequence[]{new ByteSequence(), new ByteSequence()});
+
     /**
      * 存储验证码
      */
-    private static final Map<String, String> VALIDATE_CODE_MAP = new HashMap<>();
+    private final CodeStore codeStore;
+
+    /**
+     * 事件总线，流程中的每一步都发布事件，由日志、监控等订阅者异步处理
+     */
+    private volatile ValidateCodeEventBus eventBus = ValidateCodeEventBus.getDefault();
+
+    /**
+     * 限流器，默认不限流
+     */
+    private volatile RateLimiter rateLimiter = RateLimiter.UNLIMITED;
+
+    /**
+     * 异步发送管道，未设置时 createAsync 退化为同步发送
+     */
+    private volatile SendPipeline sendPipeline;
+
+    /**
+     * 监控指标，为 null 时不计时
+     */
+    private volatile ValidateCodeMetrics metrics;
+
+    protected AbstractValidateCode() {
+        this(DEFAULT_CODE_STORE);
+    }
+
+    /**
+     * @param codeStore 验证码存储
+     */
+    protected AbstractValidateCode(CodeStore codeStore) {
+        if (codeStore == null) {
+            throw new IllegalArgumentException("codeStore 不能为空");
+        }
+        this.codeStore = codeStore;
+        if (METRICS_ENABLED_BY_DEFAULT) {
+            this.metrics = ValidateCodeMetrics.forClass(getClass(), codeStore);
+        }
+    }
 
     /**
      * 模板方法 - 创建验证码
@@ -25,19 +103,175 @@ public abstract class AbstractValidateCode {
      * @param account 账号
      */
     public final void create(String account) {
+        String code = prepareCode(account);
+
+        // 4.验证码发送
+        sendCode(account, code);
+    }
+
+    /**
+     * 模板方法 - 创建验证码，异步发送
+     * 前三步与 {@link #create(String)} 相同，第 4 步交给异步发送管道，调用方无需等待网关响应
+     *
+     * @param account 账号
+     * @return 验证码交给网关后完成；发送队列已满或发送失败时异常完成
+     */
+    public final CompletableFuture<Void> createAsync(String account) {
+        String code = prepareCode(account);
+
+        // 4.验证码发送
+        SendPipeline pipeline = sendPipeline;
+        if (pipeline == null) {
+            sendCode(account, code);
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = pipeline.submit(account, code, this::sendCode);
+        future.whenComplete((result, error) -> {
+            // 被管道拒绝的验证码不会发出，移除它，避免留下一个用户收不到却仍然有效的验证码；
+            // 只在验证码未被重新生成时移除
+            if (error instanceof RejectedExecutionException) {
+                codeStore.remove(account, code);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 创建验证码的前三步：账号校验（含限流）、验证码生成、验证码保存
+     *
+     * @param account 账号
+     * @return 已保存的验证码
+     */
+    private String prepareCode(String account) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+
         // 1.账号校验
         if (!validateParam(account)) {
+            if (metrics != null) {
+                metrics.incrementInvalidParam();
+            }
             throw new IllegalStateException("账号无效");
         }
+        eventBus.publish(ValidateCodeEventType.PARAM_VALIDATED, getChannel(), account, null);
+
+        // 限流，防止同一账号或客户端频繁请求验证码
+        if (!rateLimiter.tryAcquire(account)) {
+            if (metrics != null) {
+                metrics.incrementRateLimited();
+            }
+            throw new IllegalStateException("请求过于频繁，请稍后再试");
+        }
+        if (metrics != null) {
+            time = metrics.record(Step.VALIDATE_PARAM, time);
+        }
 
         // 2.验证码生成
         String code = generate();
+        eventBus.publish(ValidateCodeEventType.GENERATED, getChannel(), account, code);
+        if (metrics != null) {
+            time = metrics.record(Step.GENERATE, time);
+        }
 
         // 3.验证码保存
         saveCode(account, code);
+        if (metrics != null) {
+            metrics.record(Step.SAVE_CODE, time);
+            metrics.incrementCreate(1);
+        }
+        return code;
+    }
+
+    /**
+     * 模板方法 - 批量创建验证码
+     *
+     * @param accounts 账号集合
+     * @return 成功创建的数量，无效或被限流的账号会被跳过
+     * @see #create(Stream)
+     */
+    public final int createAll(Collection<String> accounts) {
+        return create(accounts.stream());
+    }
+
+    /**
+     * 模板方法 - 批量创建验证码
+     * 按批次执行校验和生成，每批验证码一次性保存，并通过批量发送方法一次性交给短信或邮件服务商
+     *
+     * @param accounts 账号流
+     * @return 成功创建的数量，无效或被限流的账号会被跳过
+     */
+    public final int create(Stream<String> accounts) {
+        ValidateCodeMetrics metrics = this.metrics;
+        int batchSize = getBatchSize();
+        int created = 0;
+        Map<String, String> batch = new LinkedHashMap<>();
+        Iterator<String> iterator = accounts.iterator();
+        while (iterator.hasNext()) {
+            String account = iterator.next();
+            long time = metrics == null ? 0 : System.nanoTime();
+
+            // 1.账号校验
+            if (!validateParam(account)) {
+                if (metrics != null) {
+                    metrics.incrementInvalidParam();
+                }
+                continue;
+            }
+            eventBus.publish(ValidateCodeEventType.PARAM_VALIDATED, getChannel(), account, null);
+
+            // 限流，与单个创建相同，在参数校验事件之后
+            if (!rateLimiter.tryAcquire(account)) {
+                if (metrics != null) {
+                    metrics.incrementRateLimited();
+                }
+                continue;
+            }
+            if (metrics != null) {
+                time = metrics.record(Step.VALIDATE_PARAM, time);
+            }
+
+            // 2.验证码生成
+            String code = generate();
+            eventBus.publish(ValidateCodeEventType.GENERATED, getChannel(), account, code);
+            if (metrics != null) {
+                metrics.record(Step.GENERATE, time);
+            }
+            batch.put(account, code);
+            if (batch.size() >= batchSize) {
+                created += createBatch(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            created += createBatch(batch);
+        }
+        return created;
+    }
+
+    /**
+     * 批量保存并发送一批验证码，保存和发送的耗时按整批记录
+     *
+     * @return 本批次的数量
+     */
+    private int createBatch(Map<String, String> batch) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+
+        // 3.验证码保存
+        codeStore.saveAll(batch, getExpireMillis());
+        eventBus.publish(ValidateCodeEventType.SAVED, getChannel(), batch.size());
+        if (metrics != null) {
+            time = metrics.record(Step.SAVE_CODE, time);
+        }
 
         // 4.验证码发送
-        send(account, code);
+        send(batch);
+        eventBus.publish(ValidateCodeEventType.SENT, getChannel(), batch.size());
+        if (metrics != null) {
+            metrics.record(Step.SEND, time);
+            metrics.incrementCreate(batch.size());
+        }
+        return batch.size();
     }
 
     /**
@@ -48,45 +282,205 @@ public abstract class AbstractValidateCode {
      * @return true: 匹配；false: 不匹配
      */
     public final boolean validate(String account, String code) {
-        // 1.根据账号获取验证码
-        String codeByMap = getCode(account);
-        if (StringUtils.isEmpty(codeByMap)) {
-            System.out.println("验证码不存在");
-            return false;
-        }
+        return validate((CharSequence) account, code);
+    }
+
+    /**
+     * 模板方法 - 校验验证码
+     * 比较耗时与输入内容无关（恒定时间），账号和验证码可以是 {@link ByteSequence} 等视图，
+     * 只有使用 {@link com.junmoyu.template.method.store.CompactCodeStore} 存储手机号验证码时整个过程不分配内存；
+     * 其他存储按 String 查找，默认的 {@link CodeStore#verifyAndRemove(CharSequence, CharSequence)} 会先把账号转换为 String
+     *
+     * @param account 账号
+     * @param code    验证码
+     * @return true: 匹配；false: 不匹配
+     */
+    public final boolean validate(CharSequence account, CharSequence code) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+
+        // 1.根据账号获取验证码，2.检查验证码是否正确，3.验证通过后，清除验证码
+        // 三步由存储原子完成，同一验证码被并发校验时只有一次能通过
+        CodeStore.Verification verification = codeStore.verifyAndRemove(account, code);
+
+        // 事件异步处理，只有 String 账号可以安全地交给消费线程
+        return onValidated(verification, account instanceof String ? (String) account : null, metrics, time);
+    }
+
+    /**
+     * 模板方法 - 校验纯数字验证码，账号为纯数字（如手机号）
+     * 验证码按数值比较，已保存的验证码 "012345" 与 12345 相等
+     *
+     * @param account 账号
+     * @param code    验证码
+     * @return true: 匹配；false: 不匹配
+     */
+    public final boolean validate(long account, int code) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
 
-        // 2.检查验证码是否正确
-        if (!codeByMap.equalsIgnoreCase(code)) {
-            System.out.println("验证码不匹配，检验失败");
-            return false;
+        CodeStore.Verification verification = codeStore.verifyAndRemove(account, code);
+        return onValidated(verification, null, metrics, time);
+    }
+
+    /**
+     * 模板方法 - 校验验证码，账号和验证码直接从 NIO 请求缓冲区中读取（ASCII）
+     * 读取 position 到 limit 之间的内容，不修改缓冲区的 position，是否分配内存同 {@link #validate(CharSequence, CharSequence)}
+     *
+     * @param account 账号
+     * @param code    验证码
+     * @return true: 匹配；false: 不匹配
+     */
+    public final boolean validate(ByteBuffer account, ByteBuffer code) {
+        ByteSequence[] views = BYTE_VIEWS.get();
+        try {
+            return validate(views[0].wrap(account), views[1].wrap(code));
+        } finally {
+            views[0].clear();
+            views[1].clear();
         }
+    }
 
-        // 3.验证通过后，清除验证码
-        removeCode(account);
-        System.out.println("验证码校验成功，验证通过");
-        return true;
+    /**
+     * 发布校验事件并记录监控指标
+     *
+     * @param account 账号，不能安全传递时为 null
+     * @return 是否匹配
+     */
+    private boolean onValidated(CodeStore.Verification verification, String account,
+                                ValidateCodeMetrics metrics, long time) {
+        switch (verification) {
+            case MATCHED:
+                eventBus.publish(ValidateCodeEventType.VALIDATED, getChannel(), account, null);
+                if (metrics != null) {
+                    metrics.record(Step.VALIDATE, time);
+                    metrics.incrementValidateHit();
+                }
+                return true;
+            case MISMATCHED:
+                eventBus.publish(ValidateCodeEventType.MISMATCH, getChannel(), account, null);
+                if (metrics != null) {
+                    metrics.record(Step.VALIDATE, time);
+                    metrics.incrementValidateMismatch();
+                }
+                return false;
+            default:
+                eventBus.publish(ValidateCodeEventType.MISSING, getChannel(), account, null);
+                if (metrics != null) {
+                    metrics.record(Step.VALIDATE, time);
+                    metrics.incrementValidateMiss();
+                }
+                return false;
+        }
     }
 
     /**
      * 保存验证码
      */
     private void saveCode(String account, String code) {
-        VALIDATE_CODE_MAP.put(account, code);
-        System.out.println("验证码已保存");
+        codeStore.save(account, code, getExpireMillis());
+        eventBus.publish(ValidateCodeEventType.SAVED, getChannel(), account, code);
+    }
+
+    /**
+     * 发送验证码
+     */
+    private void sendCode(String account, String code) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+        send(account, code);
+        eventBus.publish(ValidateCodeEventType.SENT, getChannel(), account, code);
+        if (metrics != null) {
+            metrics.record(Step.SEND, time);
+        }
+    }
+
+    /**
+     * 设置事件总线，默认使用 {@link ValidateCodeEventBus#getDefault()}
+     *
+     * @param eventBus 事件总线
+     */
+    public void setEventBus(ValidateCodeEventBus eventBus) {
+        if (eventBus == null) {
+            throw new IllegalArgumentException("eventBus 不能为空");
+        }
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * 开启或关闭监控，同一子类的所有实例共享一份监控指标，
+     * 可通过 {@link ValidateCodeMetrics#snapshot()} 或 JMX 查看
+     *
+     * @param enabled 是否开启
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        this.metrics = enabled ? ValidateCodeMetrics.forClass(getClass(), codeStore) : null;
+    }
+
+    /**
+     * 监控指标
+     *
+     * @return 未开启监控时返回 null
+     */
+    public ValidateCodeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 渠道名称，用于事件中区分手机、邮箱等，子类应重写并返回常量
+     *
+     * @return 渠道名称
+     */
+    protected String getChannel() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * 验证码有效期，子类可重写
+     *
+     * @return 有效期，单位毫秒
+     */
+    protected long getExpireMillis() {
+        return DEFAULT_EXPIRE_MILLIS;
+    }
+
+    /**
+     * 设置限流器，在账号校验之后、验证码生成之前执行
+     *
+     * @param rateLimiter 限流器，可通过 {@link RateLimiter#all(RateLimiter...)} 组合按账号限流和全局限流
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter == null ? RateLimiter.UNLIMITED : rateLimiter;
+    }
+
+    /**
+     * 设置异步发送管道，多个实例可以共享同一个管道
+     *
+     * @param sendPipeline 异步发送管道，为 null 时关闭异步发送
+     */
+    public void setSendPipeline(SendPipeline sendPipeline) {
+        this.sendPipeline = sendPipeline;
     }
 
     /**
-     * 获取验证码
+     * 批量处理大小，子类可重写
+     *
+     * @return 每批的账号数量
      */
-    private String getCode(String account) {
-        return VALIDATE_CODE_MAP.get(account);
+    protected int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
     }
 
     /**
-     * 移除验证码
+     * 批量发送验证码，默认逐个调用 {@link #send(String, String)}
+     * 服务商支持批量接口时，子类应重写此方法
+     *
+     * @param codes 账号与验证码，迭代顺序与提交顺序一致
      */
-    private void removeCode(String account) {
-        VALIDATE_CODE_MAP.remove(account);
+    public void send(Map<String, String> codes) {
+        for (Map.Entry<String, String> entry : codes.entrySet()) {
+            send(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -39,10 +39,8 @@ public class ApplicationTest {
         while (true) {
             String code = s.nextLine();
             if (StringUtils.isNotEmpty(code) && code.length() == 6) {
-                // 校验手机验证码
-                if (smsValidateCode.validate(MOBILE_ACCOUNT, code)) {
-                    System.out.println("验证码校验成功，验证通过");
-                }
+                // 校验手机验证码，校验结果由事件总线的日志订阅者输出
+                smsValidateCode.validate(MOBILE_ACCOUNT, code);
                 break;
             } else {
                 System.out.print("请输入六位手机验证码：");
@@ -64,10 +62,8 @@ public class ApplicationTest {
         while (true) {
             String code = s.nextLine();
             if (StringUtils.isNotEmpty(code) && code.length() == 6) {
-                // 校验邮箱验证码
-                if (emailValidateCode.validate(EMAIL_ACCOUNT, code)) {
-                    System.out.println("验证码校验成功，验证通过");
-                }
+                // 校验邮箱验证码，校验结果由事件总线的日志订阅者输出
+                emailValidateCode.validate(EMAIL_ACCOUNT, code);
                 break;
             } else {
                 System.out.print("请输入六位邮箱验证码：");
@@ -1,8 +1,11 @@
 package com.junmoyu.template.method;
 
+import com.junmoyu.template.method.store.CodeStore;
 import com.junmoyu.template.method.util.RandomUtils;
 import com.junmoyu.template.method.util.RegexUtils;
 
+import java.util.Map;
+
 /**
  * 短信验证码
  *
@@ -11,25 +14,40 @@ import com.junmoyu.template.method.util.RegexUtils;
  */
 public class SmsValidateCode extends AbstractValidateCode {
 
+    public SmsValidateCode() {
+        super();
+    }
+
+    /**
+     * @param codeStore 验证码存储
+     */
+    public SmsValidateCode(CodeStore codeStore) {
+        super(codeStore);
+    }
+
+    @Override
+    protected String getChannel() {
+        return "手机";
+    }
+
     @Override
     public boolean validateParam(String account) {
-        if (RegexUtils.isMobile(account)) {
-            System.out.println("手机号码校验通过");
-            return true;
-        }
-        return false;
+        return RegexUtils.isMobile(account);
     }
 
     @Override
     public String generate() {
-        String code = RandomUtils.random(6, true);
-        System.out.println("生成六位纯数字的手机验证码：" + code);
-        return code;
+        // 六位纯数字
+        return RandomUtils.random(6, true);
     }
 
     @Override
     public void send(String account, String code) {
         // 发送验证码到手机，在此不做实现
-        System.out.println("已将验证码发送到手机。手机号码：" + account + "，验证码：" + code);
+    }
+
+    @Override
+    public void send(Map<String, String> codes) {
+        // 调用服务商的批量发送接口，在此不做实现
     }
 }
@@ -0,0 +1,128 @@
+package com.junmoyu.template.method.channel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制 - 线程安全
+ * 按 AIMD（加性增、乘性减）根据观测到的耗时调整同时进行中的请求上限：
+ * 1. 以近期的最小耗时作为基准，并发已用到上限的一半以上且耗时超过基准的 tolerance 倍，视为下游已开始排队，上限乘以 0.9；
+ *    请求失败时无论并发多少都下调；
+ * 2. 耗时正常且并发已用到上限的一半以上时，每累计 limit 个样本上限加 1；并发很低时耗时的波动与负载无关，不做调整；
+ * 3. 每次下调后至少再观察 limit 个样本才会再次下调，避免一次抖动把上限压到最低；
+ * 4. 基准每隔一段样本重新测量，下游整体变慢后基准随之上移。
+ * 上限越小，排在慢网关前面的请求越少，被拒绝的请求可以立即返回而不是占住线程
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double DECREASE_RATIO = 0.9;
+
+    /**
+     * 每隔多少个样本重新测量基准耗时
+     */
+    private static final int BASELINE_RESET_SAMPLES = 200;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    /**
+     * 以下字段只在持有 this 锁时访问
+     */
+    private long baselineNanos = Long.MAX_VALUE;
+    private long sampleCount;
+    private long lastDecreaseSample;
+    private int successesSinceIncrease;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit     最小上限
+     * @param maxLimit     最大上限
+     * @param tolerance    耗时超过基准的倍数，超过即视为过载，一般取 2.0
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("需要满足 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (tolerance <= 1) {
+            throw new IllegalArgumentException("tolerance 必须大于 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @return 已达上限时返回 false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放名额，不提交样本
+     * 用于请求没有到达下游的情况（如提交线程池被拒绝、参数校验失败），此时的耗时与下游负载无关，
+     * 作为成功样本提交会把基准耗时拉低到接近 0，之后的所有样本都会被判定为过载
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 释放名额并提交样本
+     *
+     * @param latencyNanos 本次请求的耗时，单位纳秒
+     * @param success      是否成功，失败视为过载
+     */
+    public void release(long latencyNanos, boolean success) {
+        int concurrency = inFlight.getAndDecrement();
+        onSample(latencyNanos, success, concurrency);
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean success, int concurrency) {
+        sampleCount++;
+        if (sampleCount % BASELINE_RESET_SAMPLES == 0) {
+            baselineNanos = Long.MAX_VALUE;
+        }
+        if (success && latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        }
+
+        int current = limit;
+        boolean utilized = concurrency * 2 >= current;
+        if (!success || utilized && latencyNanos > baselineNanos * tolerance) {
+            if (sampleCount - lastDecreaseSample >= current) {
+                limit = Math.max(minLimit, (int) (current * DECREASE_RATIO));
+                lastDecreaseSample = sampleCount;
+                successesSinceIncrease = 0;
+            }
+        } else if (utilized && ++successesSinceIncrease >= current) {
+            limit = Math.min(maxLimit, current + 1);
+            successesSinceIncrease = 0;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
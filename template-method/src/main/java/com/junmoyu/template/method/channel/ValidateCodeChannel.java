@@ -0,0 +1,169 @@
+package com.junmoyu.template.method.channel;
+
+import com.junmoyu.template.method.AbstractValidateCode;
+import com.junmoyu.template.method.store.CodeStore;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 验证码通道 - 舱壁隔离
+ * 每个通道独占一个验证码实例、一份存储、一个线程池和一个有界队列，
+ * 某个通道的网关变慢时只会占满自己的线程和队列，不影响其他通道
+ * <p>
+ * 创建请求需要先获得 {@link AdaptiveConcurrencyLimit} 的名额，名额按实际发送耗时自动伸缩；
+ * 名额或队列不足时立即拒绝，调用方可以提示用户稍后重试
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ValidateCodeChannel {
+
+    private final String name;
+    private final AbstractValidateCode validateCode;
+    private final CodeStore codeStore;
+    private final ThreadPoolExecutor executor;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    ValidateCodeChannel(String name, AbstractValidateCode validateCode, CodeStore codeStore,
+                        int threads, int queueCapacity, AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.name = name;
+        this.validateCode = validateCode;
+        this.codeStore = codeStore;
+        this.concurrencyLimit = concurrencyLimit;
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "validate-code-" + name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 在通道的线程池中创建并发送验证码
+     *
+     * @param account 账号
+     * @return 发送完成后完成；通道繁忙、账号无效、被限流或发送失败时异常完成
+     */
+    public CompletableFuture<Void> create(String account) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!concurrencyLimit.tryAcquire()) {
+            rejectedCount.increment();
+            future.completeExceptionally(new RejectedExecutionException("通道繁忙，请稍后再试：" + name));
+            return future;
+        }
+        try {
+            executor.execute(() -> execute(account, future));
+        } catch (RejectedExecutionException e) {
+            concurrencyLimit.release();
+            rejectedCount.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 校验验证码，只读写本通道的存储，在调用方线程中执行
+     *
+     * @param account 账号
+     * @param code    验证码
+     * @return true: 匹配；false: 不匹配
+     */
+    public boolean validate(String account, String code) {
+        return validateCode.validate(account, code);
+    }
+
+    /**
+     * 只统计在线程池中的执行耗时，不包括排队时间，耗时主要来自 send()
+     */
+    private void execute(String account, CompletableFuture<Void> future) {
+        long start = System.nanoTime();
+        try {
+            validateCode.create(account);
+            completedCount.increment();
+            future.complete(null);
+            concurrencyLimit.release(System.nanoTime() - start, true);
+        } catch (IllegalStateException e) {
+            // 账号无效或被限流，请求没有到达网关，耗时不能作为样本
+            failedCount.increment();
+            future.completeExceptionally(e);
+            concurrencyLimit.release();
+        } catch (Throwable e) {
+            failedCount.increment();
+            future.completeExceptionally(e);
+            concurrencyLimit.release(System.nanoTime() - start, false);
+        }
+    }
+
+    /**
+     * 停止接收新请求，等待已提交的请求完成
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 超时前全部完成时返回 true
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public AbstractValidateCode getValidateCode() {
+        return validateCode;
+    }
+
+    public CodeStore getCodeStore() {
+        return codeStore;
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit.getLimit();
+    }
+
+    public int getInFlight() {
+        return concurrencyLimit.getInFlight();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ValidateCodeChannel{" +
+                "name='" + name + '\'' +
+                ", limit=" + getConcurrencyLimit() +
+                ", inFlight=" + getInFlight() +
+                ", queueDepth=" + getQueueDepth() +
+                ", completed=" + getCompletedCount() +
+                ", failed=" + getFailedCount() +
+                ", rejected=" + getRejectedCount() +
+                '}';
+    }
+}
@@ -0,0 +1,163 @@
+package com.junmoyu.template.method.channel;
+
+import com.junmoyu.template.method.AbstractValidateCode;
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 验证码通道注册表 - 按通道名称路由 create/validate
+ * 每个通道相互隔离，详见 {@link ValidateCodeChannel}
+ * <p>
+ * 所有通道默认发布到同一个 {@link com.junmoyu.template.method.event.ValidateCodeEventBus#getDefault()}：
+ * 总线的缓冲区满时直接丢弃事件，发布永远不会阻塞，某个通道的事件洪峰最多挤掉其他通道的日志和监控事件，
+ * 不会拖慢它们的 create/validate；需要隔离事件时，在 factory 中为验证码实例调用
+ * {@link AbstractValidateCode#setEventBus} 设置独立的总线
+ * <pre>
+ * ValidateCodeRegistry registry = new ValidateCodeRegistry();
+ * registry.register("sms", SmsValidateCode::new);
+ * registry.register("email", EmailValidateCode::new, new ConcurrentCodeStore(), 4, 200, 16);
+ * registry.create("sms", "13855287421");
+ * registry.validate("sms", "13855287421", code);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ValidateCodeRegistry implements Closeable {
+
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    private final ConcurrentMap<String, ValidateCodeChannel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 由注册表创建的存储，关闭注册表时一并停止它们的过期清理线程；调用方传入的存储由调用方负责关闭
+     */
+    private final ConcurrentMap<String, ConcurrentCodeStore> ownedStores = new ConcurrentHashMap<>();
+
+    /**
+     * 使用默认配置注册通道：独立的 ConcurrentCodeStore，8 个线程，队列容量 1000，并发上限最大 64
+     * 存储由注册表创建，{@link #close()} 时停止
+     *
+     * @param channel 通道名称
+     * @param factory 根据存储创建验证码实例，例如 SmsValidateCode::new
+     * @return 通道
+     */
+    public ValidateCodeChannel register(String channel, Function<CodeStore, ? extends AbstractValidateCode> factory) {
+        if (channels.containsKey(channel)) {
+            throw new IllegalStateException("通道已注册：" + channel);
+        }
+        ConcurrentCodeStore codeStore = new ConcurrentCodeStore();
+        ValidateCodeChannel created;
+        try {
+            created = register(channel, factory, codeStore, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_CONCURRENCY);
+        } catch (RuntimeException e) {
+            // 并发注册了同名通道或 factory 失败，存储没有被任何通道使用
+            codeStore.shutdown();
+            throw e;
+        }
+        ownedStores.put(channel, codeStore);
+        return created;
+    }
+
+    /**
+     * 注册通道
+     *
+     * @param channel        通道名称
+     * @param factory        根据存储创建验证码实例，例如 SmsValidateCode::new
+     * @param codeStore      通道独占的存储分区
+     * @param threads        通道的线程数
+     * @param queueCapacity  通道的队列容量
+     * @param maxConcurrency 自适应并发上限的最大值，初始值与线程数相同
+     * @return 通道
+     */
+    public ValidateCodeChannel register(String channel, Function<CodeStore, ? extends AbstractValidateCode> factory,
+                                       CodeStore codeStore, int threads, int queueCapacity, int maxConcurrency) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("threads 和 queueCapacity 必须大于 0");
+        }
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                Math.min(threads, maxConcurrency), 1, maxConcurrency, 2.0);
+        ValidateCodeChannel created = new ValidateCodeChannel(channel, factory.apply(codeStore), codeStore,
+                threads, queueCapacity, limit);
+        if (channels.putIfAbsent(channel, created) != null) {
+            try {
+                created.shutdown(0, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("通道已注册：" + channel);
+        }
+        return created;
+    }
+
+    /**
+     * 创建验证码
+     *
+     * @param channel 通道名称
+     * @param account 账号
+     * @return 发送完成后完成；通道繁忙、账号无效、被限流或发送失败时异常完成
+     */
+    public CompletableFuture<Void> create(String channel, String account) {
+        return getChannel(channel).create(account);
+    }
+
+    /**
+     * 校验验证码
+     *
+     * @param channel 通道名称
+     * @param account 账号
+     * @param code    验证码
+     * @return true: 匹配；false: 不匹配
+     */
+    public boolean validate(String channel, String account, String code) {
+        return getChannel(channel).validate(account, code);
+    }
+
+    /**
+     * 获取通道
+     *
+     * @param channel 通道名称
+     * @return 通道
+     */
+    public ValidateCodeChannel getChannel(String channel) {
+        ValidateCodeChannel found = channels.get(channel);
+        if (found == null) {
+            throw new IllegalArgumentException("未注册的通道：" + channel);
+        }
+        return found;
+    }
+
+    public Collection<ValidateCodeChannel> getChannels() {
+        return Collections.unmodifiableCollection(channels.values());
+    }
+
+    /**
+     * 关闭所有通道，每个通道最多等待 5 秒，然后停止由注册表创建的存储
+     */
+    @Override
+    public void close() {
+        try {
+            for (ValidateCodeChannel channel : channels.values()) {
+                channel.shutdown(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (ConcurrentCodeStore codeStore : ownedStores.values()) {
+                codeStore.shutdown();
+            }
+            ownedStores.clear();
+        }
+    }
+}
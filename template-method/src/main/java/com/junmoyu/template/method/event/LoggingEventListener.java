@@ -0,0 +1,56 @@
+package com.junmoyu.template.method.event;
+
+import java.io.PrintStream;
+
+/**
+ * 把验证码事件输出到控制台的订阅者，在消费线程中执行，不会阻塞验证码流程
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class LoggingEventListener implements ValidateCodeEventListener {
+
+    private final PrintStream out;
+
+    public LoggingEventListener() {
+        this(System.out);
+    }
+
+    /**
+     * @param out 输出流
+     */
+    public LoggingEventListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(ValidateCodeEvent event) {
+        switch (event.getType()) {
+            case PARAM_VALIDATED:
+                out.println(event.getChannel() + "账号校验通过：" + event.getAccount());
+                break;
+            case GENERATED:
+                out.println("生成" + event.getChannel() + "验证码：" + event.getCode());
+                break;
+            case SAVED:
+                out.println(event.getCount() == 1 ? "验证码已保存" : "已批量保存 " + event.getCount() + " 个验证码");
+                break;
+            case SENT:
+                out.println(event.getCount() == 1
+                        ? "已将验证码发送到" + event.getChannel() + "。账号：" + event.getAccount() + "，验证码：" + event.getCode()
+                        : "已将 " + event.getCount() + " 个验证码批量发送到" + event.getChannel() + "。");
+                break;
+            case VALIDATED:
+                out.println("验证码校验成功，验证通过");
+                break;
+            case MISMATCH:
+                out.println("验证码不匹配，检验失败");
+                break;
+            case MISSING:
+                out.println("验证码不存在");
+                break;
+            default:
+                out.println(event);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.junmoyu.template.method.event;
+
+/**
+ * 验证码事件
+ * 事件对象是环形缓冲区中预先分配的槽位，发布时只复制字段引用，不创建新对象。
+ * 因此事件只在 {@link ValidateCodeEventListener#onEvent(ValidateCodeEvent)} 执行期间有效，需要保留时请复制字段
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ValidateCodeEvent {
+
+    private ValidateCodeEventType type;
+    private String channel;
+    private String account;
+    private String code;
+    private int count;
+    private long timestamp;
+
+    ValidateCodeEvent() {
+    }
+
+    void set(ValidateCodeEventType type, String channel, String account, String code, int count, long timestamp) {
+        this.type = type;
+        this.channel = channel;
+        this.account = account;
+        this.code = code;
+        this.count = count;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 消费完成后清除引用，避免缓冲区长期持有账号和验证码
+     */
+    void clear() {
+        this.channel = null;
+        this.account = null;
+        this.code = null;
+    }
+
+    public ValidateCodeEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return 渠道名称，例如“手机”、“邮箱”
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return 账号，批量事件为 null
+     */
+    public String getAccount() {
+        return account;
+    }
+
+    /**
+     * @return 验证码，与验证码无关的事件或批量事件为 null
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return 本次事件涉及的验证码数量，单个操作为 1
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return 事件发生的时间，单位毫秒
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidateCodeEvent{" +
+                "type=" + type +
+                ", channel='" + channel + '\'' +
+                ", account='" + account + '\'' +
+                ", count=" + count +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
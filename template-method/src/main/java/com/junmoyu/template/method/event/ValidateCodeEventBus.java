@@ -0,0 +1,280 @@
+package com.junmoyu.template.method.event;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 验证码事件总线 - 多生产者单消费者，无锁
+ * 事件写入预先分配好的环形缓冲区，由一个后台线程依次取出并分发给各订阅者，发布方既不加锁也不分配内存：
+ * 1. 生产者通过 CAS 推进写指针抢占槽位，写入字段后发布该槽位的序号；
+ * 2. 消费者按序号读取已发布的槽位，分发完成后把槽位归还给下一轮写入；
+ * 3. 缓冲区满时直接丢弃事件并计数，验证码流程永远不会因为日志或监控而阻塞；
+ * 4. 消费者空闲时先让出 CPU 若干次，仍没有事件则无超时地休眠，由生产者在发现它休眠时唤醒，没有流量时不占用 CPU。
+ * 槽位序号的设计参考 Dmitry Vyukov 的有界 MPMC 队列
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ValidateCodeEventBus implements Closeable {
+
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * 消费者空闲后进入休眠前让出 CPU 的次数，流量持续时消费者不休眠，生产者也就不需要唤醒它
+     */
+    private static final int IDLE_YIELDS = 64;
+
+    private static final ValidateCodeEventBus DEFAULT = createDefault();
+
+    private final ValidateCodeEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    /**
+     * 写指针，由生产者通过 CAS 推进
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 读指针，只由消费线程修改
+     */
+    private volatile long head;
+
+    private volatile ValidateCodeEventListener[] listeners = new ValidateCodeEventListener[0];
+    private volatile boolean running = true;
+    private final Thread consumer;
+
+    /**
+     * 消费者是否即将休眠或正在休眠，生产者发布事件后看到 true 时唤醒消费者
+     */
+    private volatile boolean waiting;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder listenerErrorCount = new LongAdder();
+
+    public ValidateCodeEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 缓冲区容量，向上取整为 2 的幂
+     */
+    public ValidateCodeEventBus(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity 必须在 1 到 2^30 之间");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new ValidateCodeEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ValidateCodeEvent();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.consumer = new Thread(this::consume, "validate-code-event");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * 默认事件总线，已订阅控制台日志，JVM 退出前会输出缓冲区中剩余的事件
+     *
+     * @return 事件总线
+     */
+    public static ValidateCodeEventBus getDefault() {
+        return DEFAULT;
+    }
+
+    private static ValidateCodeEventBus createDefault() {
+        ValidateCodeEventBus bus = new ValidateCodeEventBus();
+        bus.subscribe(new LoggingEventListener());
+        Runtime.getRuntime().addShutdownHook(new Thread(bus::close, "validate-code-event-shutdown"));
+        return bus;
+    }
+
+    /**
+     * 订阅事件
+     *
+     * @param listener 订阅者
+     */
+    public synchronized void subscribe(ValidateCodeEventListener listener) {
+        ValidateCodeEventListener[] current = listeners;
+        ValidateCodeEventListener[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = listener;
+        listeners = next;
+    }
+
+    /**
+     * 取消订阅
+     *
+     * @param listener 订阅者
+     */
+    public synchronized void unsubscribe(ValidateCodeEventListener listener) {
+        ValidateCodeEventListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                ValidateCodeEventListener[] next = new ValidateCodeEventListener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                listeners = next;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 发布单个验证码的事件
+     *
+     * @param type    事件类型
+     * @param channel 渠道名称
+     * @param account 账号
+     * @param code    验证码，可以为 null
+     * @return 缓冲区已满或总线已关闭时返回 false，事件被丢弃
+     */
+    public boolean publish(ValidateCodeEventType type, String channel, String account, String code) {
+        return publish(type, channel, account, code, 1);
+    }
+
+    /**
+     * 发布批量事件
+     *
+     * @param type    事件类型
+     * @param channel 渠道名称
+     * @param count   本批数量
+     * @return 缓冲区已满或总线已关闭时返回 false，事件被丢弃
+     */
+    public boolean publish(ValidateCodeEventType type, String channel, int count) {
+        return publish(type, channel, null, null, count);
+    }
+
+    private boolean publish(ValidateCodeEventType type, String channel, String account, String code, int count) {
+        if (!running) {
+            droppedCount.increment();
+            return false;
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                // 槽位还未被消费者归还，缓冲区已满
+                droppedCount.increment();
+                return false;
+            }
+            // difference > 0：其他生产者已抢占该槽位，重新读取写指针
+        }
+        slots[index].set(type, channel, account, code, count, System.currentTimeMillis());
+        // 这里必须是 volatile 写：与消费者“先写 waiting 再检查槽位”配对，保证两者至少有一方看到对方的写入，不会丢失唤醒
+        sequences.set(index, position + 1);
+        if (waiting) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * 缓冲区已满或总线关闭后被丢弃的事件数量
+     *
+     * @return 数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 订阅者处理事件时抛出异常的次数
+     *
+     * @return 次数
+     */
+    public long getListenerErrorCount() {
+        return listenerErrorCount.sum();
+    }
+
+    /**
+     * 缓冲区中尚未消费的事件数量，为近似值
+     *
+     * @return 数量
+     */
+    public int getPendingCount() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * 关闭总线，不再接收新事件，等待缓冲区中剩余的事件分发完成，最多等待 1 秒
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        int idle = 0;
+        while (true) {
+            if (poll()) {
+                idle = 0;
+                continue;
+            }
+            if (!running && tail.get() == head) {
+                return;
+            }
+            if (++idle < IDLE_YIELDS) {
+                Thread.yield();
+                continue;
+            }
+            waiting = true;
+            // 设置 waiting 之后再检查一次，避免错过在此之前发布、但生产者没有看到 waiting 的事件
+            if (running && !hasNext()) {
+                LockSupport.park(this);
+            }
+            waiting = false;
+            idle = 0;
+        }
+    }
+
+    private boolean hasNext() {
+        long position = head;
+        return sequences.get((int) position & mask) == position + 1;
+    }
+
+    /**
+     * 分发一个事件
+     *
+     * @return 缓冲区为空时返回 false
+     */
+    private boolean poll() {
+        if (!hasNext()) {
+            return false;
+        }
+        long position = head;
+        int index = (int) position & mask;
+        ValidateCodeEvent event = slots[index];
+        for (ValidateCodeEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                listenerErrorCount.increment();
+            }
+        }
+        event.clear();
+        head = position + 1;
+        sequences.lazySet(index, position + mask + 1);
+        return true;
+    }
+}
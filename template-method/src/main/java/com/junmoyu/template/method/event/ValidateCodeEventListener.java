@@ -0,0 +1,19 @@
+package com.junmoyu.template.method.event;
+
+/**
+ * 验证码事件订阅者，日志、监控、审计等通过订阅事件获取验证码流程的信息
+ * 所有订阅者都在事件总线的消费线程中依次调用，不要在此处做耗时的阻塞操作
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface ValidateCodeEventListener {
+
+    /**
+     * 处理事件
+     *
+     * @param event 事件，只在本方法内有效
+     */
+    void onEvent(ValidateCodeEvent event);
+}
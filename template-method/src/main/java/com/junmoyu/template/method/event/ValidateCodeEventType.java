@@ -0,0 +1,45 @@
+package com.junmoyu.template.method.event;
+
+/**
+ * 验证码事件类型
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public enum ValidateCodeEventType {
+
+    /**
+     * 账号校验通过
+     */
+    PARAM_VALIDATED,
+
+    /**
+     * 验证码已生成
+     */
+    GENERATED,
+
+    /**
+     * 验证码已保存，批量保存时 count 为本批数量
+     */
+    SAVED,
+
+    /**
+     * 验证码已发送，批量发送时 count 为本批数量
+     */
+    SENT,
+
+    /**
+     * 验证码校验通过
+     */
+    VALIDATED,
+
+    /**
+     * 验证码不匹配
+     */
+    MISMATCH,
+
+    /**
+     * 验证码不存在或已过期
+     */
+    MISSING
+}
@@ -0,0 +1,52 @@
+package com.junmoyu.template.method.generator;
+
+/**
+ * 验证码生成器
+ * 实现类必须是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public interface CodeGenerator {
+
+    /**
+     * 验证码字符集，前 10 个为数字
+     */
+    char[] CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * 纯数字时使用的字符数量
+     */
+    int DIGIT_COUNT = 10;
+
+    /**
+     * 生成验证码并写入字符数组，不分配对象
+     *
+     * @param dest    目标数组
+     * @param offset  写入起始位置
+     * @param length  验证码长度
+     * @param onlyNum 是否只要数字
+     */
+    void next(char[] dest, int offset, int length, boolean onlyNum);
+
+    /**
+     * 生成纯数字验证码的数值，不分配对象，调用方按 length 补齐前导 0
+     *
+     * @param length 验证码长度，最大为 9
+     * @return 验证码数值，范围 [0, 10^length)
+     */
+    int nextNumber(int length);
+
+    /**
+     * 生成验证码
+     *
+     * @param length  验证码长度
+     * @param onlyNum 是否只要数字
+     * @return 验证码
+     */
+    default String next(int length, boolean onlyNum) {
+        char[] chars = new char[length];
+        next(chars, 0, length, onlyNum);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,193 @@
+package com.junmoyu.template.method.generator;
+
+import java.security.SecureRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基于 SecureRandom 的验证码生成器 - 密码学安全
+ * SecureRandom 每次调用的开销较大，这里一次性读取一大块随机字节，预先转换成数字和字母两个字符池，
+ * 生成验证码时只需通过原子游标从池中领取一段字符
+ * 每种字符池都是双缓冲的：当前池用掉一半时，由后台线程预先生成下一个池，用完后直接切换，
+ * 生成验证码的线程不需要等待 SecureRandom；只有后台线程来不及时才在调用方线程上同步生成
+ * 字节到字符的转换采用拒绝采样，保证每个字符等概率出现
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SecureBlockCodeGenerator implements CodeGenerator {
+
+    private static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final SecureRandom secureRandom;
+    private final int blockSize;
+
+    private final Pool digitPool;
+    private final Pool charPool;
+
+    public SecureBlockCodeGenerator() {
+        this(new SecureRandom(), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param secureRandom 随机数源
+     * @param blockSize    每次预生成的字符数量
+     */
+    public SecureBlockCodeGenerator(SecureRandom secureRandom, int blockSize) {
+        if (blockSize < 16) {
+            throw new IllegalArgumentException("blockSize 不能小于 16");
+        }
+        this.secureRandom = secureRandom;
+        this.blockSize = blockSize;
+        this.digitPool = new Pool(DIGIT_COUNT);
+        this.charPool = new Pool(CHARS.length);
+    }
+
+    @Override
+    public void next(char[] dest, int offset, int length, boolean onlyNum) {
+        if (length > blockSize) {
+            throw new IllegalArgumentException("验证码长度不能超过 blockSize");
+        }
+        Pool pool = onlyNum ? digitPool : charPool;
+        while (true) {
+            Block block = pool.current;
+            int start = pool.claim(block, length);
+            if (start >= 0) {
+                for (int i = 0; i < length; i++) {
+                    dest[offset + i] = CHARS[block.symbols[start + i]];
+                }
+                return;
+            }
+            pool.swap(block);
+        }
+    }
+
+    @Override
+    public int nextNumber(int length) {
+        if (length <= 0 || length > 9) {
+            throw new IllegalArgumentException("纯数字验证码长度必须在 1 到 9 之间");
+        }
+        while (true) {
+            Block block = digitPool.current;
+            int start = digitPool.claim(block, length);
+            if (start >= 0) {
+                int value = 0;
+                for (int i = 0; i < length; i++) {
+                    value = value * 10 + block.symbols[start + i];
+                }
+                return value;
+            }
+            digitPool.swap(block);
+        }
+    }
+
+    private Block newBlock(int alphabetSize) {
+        // 256 以内 alphabetSize 的最大整数倍，超出部分丢弃，避免取模偏差
+        int limit = 256 - 256 % alphabetSize;
+        byte[] symbols = new byte[blockSize];
+        byte[] entropy = new byte[blockSize];
+        int filled = 0;
+        while (filled < blockSize) {
+            secureRandom.nextBytes(entropy);
+            for (int i = 0; i < entropy.length && filled < blockSize; i++) {
+                int value = entropy[i] & 0xFF;
+                if (value < limit) {
+                    symbols[filled++] = (byte) (value % alphabetSize);
+                }
+            }
+        }
+        return new Block(symbols);
+    }
+
+    /**
+     * 一种字符的双缓冲池：current 供调用方领取，spare 由后台线程预先生成
+     */
+    private final class Pool {
+
+        private final int alphabetSize;
+        private final AtomicReference<Block> spare = new AtomicReference<>();
+        private final AtomicBoolean preparing = new AtomicBoolean();
+        private volatile Block current;
+
+        private Pool(int alphabetSize) {
+            this.alphabetSize = alphabetSize;
+            this.current = newBlock(alphabetSize);
+        }
+
+        /**
+         * 从池中领取一段字符，游标越过一半时通知后台线程准备下一个池
+         *
+         * @return 起始下标，池已用完时返回 -1
+         */
+        private int claim(Block block, int length) {
+            int start = block.cursor.getAndAdd(length);
+            int half = blockSize >>> 1;
+            if (start <= half && start + length > half) {
+                // 各线程领取的区间互不重叠且连续，只有一个线程会越过中点
+                prepare();
+            }
+            return start + length <= blockSize ? start : -1;
+        }
+
+        /**
+         * 用预先生成的池替换已用完的池，后台线程还没生成好时在当前线程同步生成
+         */
+        private void swap(Block exhausted) {
+            if (current != exhausted) {
+                return;
+            }
+            Block fresh = spare.getAndSet(null);
+            if (fresh == null) {
+                fresh = newBlock(alphabetSize);
+            }
+            synchronized (this) {
+                if (current == exhausted) {
+                    current = fresh;
+                    return;
+                }
+            }
+            // 其他线程已经完成替换，多生成的池留作下一次使用
+            spare.compareAndSet(null, fresh);
+        }
+
+        private void prepare() {
+            if (spare.get() == null && preparing.compareAndSet(false, true)) {
+                RefillExecutor.INSTANCE.execute(() -> {
+                    try {
+                        spare.compareAndSet(null, newBlock(alphabetSize));
+                    } finally {
+                        preparing.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 预先生成字符池的后台线程，所有实例共用，空闲时不占用 CPU
+     */
+    private static final class RefillExecutor {
+
+        private static final Executor INSTANCE = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "secure-code-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 预生成的字符池，symbols 中保存的是字符在 CHARS 中的下标
+     */
+    private static final class Block {
+
+        private final byte[] symbols;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Block(byte[] symbols) {
+            this.symbols = symbols;
+        }
+    }
+}
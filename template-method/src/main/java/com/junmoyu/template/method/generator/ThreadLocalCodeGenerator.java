@@ -0,0 +1,35 @@
+package com.junmoyu.template.method.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于 ThreadLocalRandom 的验证码生成器
+ * 每个线程使用独立的随机数种子，多线程并发生成时不会在同一个种子上 CAS 竞争
+ * 不是密码学安全的随机数，对安全性要求较高时使用 {@link SecureBlockCodeGenerator}
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ThreadLocalCodeGenerator implements CodeGenerator {
+
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+    };
+
+    @Override
+    public void next(char[] dest, int offset, int length, boolean onlyNum) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int bound = onlyNum ? DIGIT_COUNT : CHARS.length;
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = CHARS[random.nextInt(bound)];
+        }
+    }
+
+    @Override
+    public int nextNumber(int length) {
+        if (length <= 0 || length > 9) {
+            throw new IllegalArgumentException("纯数字验证码长度必须在 1 到 9 之间");
+        }
+        return ThreadLocalRandom.current().nextInt(POWERS_OF_TEN[length]);
+    }
+}
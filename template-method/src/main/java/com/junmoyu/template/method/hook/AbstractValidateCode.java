@@ -1,9 +1,16 @@
 package com.junmoyu.template.method.hook;
 
+import com.junmoyu.template.method.event.ValidateCodeEventBus;
+import com.junmoyu.template.method.event.ValidateCodeEventType;
+import com.junmoyu.template.method.hook.message.MessageTemplate;
+import com.junmoyu.template.method.metrics.Step;
+import com.junmoyu.template.method.metrics.ValidateCodeMetrics;
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+import com.junmoyu.template.method.util.CodeMatcher;
 import com.junmoyu.template.method.util.StringUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 验证码抽象类 - 添加 Hook
@@ -14,10 +21,63 @@ import java.util.Map;
  */
 public abstract class AbstractValidateCode {
 
+    /**
+     * 默认的验证码存储，所有未指定存储的子类共享
+     */
+    private static final CodeStore DEFAULT_CODE_STORE = new ConcurrentCodeStore();
+
+    /**
+     * 默认的验证码有效期：5 分钟
+     */
+    private static final long DEFAULT_EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * 默认的消息模板
+     */
+    private static final MessageTemplate DEFAULT_TEMPLATE =
+            MessageTemplate.compile("您的验证码是 ${code}，${minutes} 分钟内有效。");
+
+    /**
+     * 每个线程复用的消息缓冲区，渲染模板时不再分配新的 StringBuilder
+     */
+    private static final ThreadLocal<StringBuilder> MESSAGE_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    /**
+     * 是否默认开启监控，可通过 -Dtemplate.method.metrics=true 开启
+     */
+    private static final boolean METRICS_ENABLED_BY_DEFAULT = Boolean.getBoolean("template.method.metrics");
+
     /**
      * 存储验证码
      */
-    private static final Map<String, String> VALIDATE_CODE_MAP = new HashMap<>();
+    private final CodeStore codeStore;
+
+    /**
+     * 事件总线，流程中的每一步都发布事件，由日志、监控等订阅者异步处理
+     */
+    private volatile ValidateCodeEventBus eventBus = ValidateCodeEventBus.getDefault();
+
+    /**
+     * 监控指标，为 null 时不计时
+     */
+    private volatile ValidateCodeMetrics metrics;
+
+    protected AbstractValidateCode() {
+        this(DEFAULT_CODE_STORE);
+    }
+
+    /**
+     * @param codeStore 验证码存储
+     */
+    protected AbstractValidateCode(CodeStore codeStore) {
+        if (codeStore == null) {
+            throw new IllegalArgumentException("codeStore 不能为空");
+        }
+        this.codeStore = codeStore;
+        if (METRICS_ENABLED_BY_DEFAULT) {
+            this.metrics = ValidateCodeMetrics.forClass(getClass(), codeStore);
+        }
+    }
 
     /**
      * 模板方法 - 创建验证码
@@ -25,24 +85,50 @@ public abstract class AbstractValidateCode {
      * @param account 账号
      */
     public final void create(String account) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+
         // 1.账号校验
         if (!validateParam(account)) {
+            if (metrics != null) {
+                metrics.incrementInvalidParam();
+            }
             throw new IllegalStateException("账号无效");
         }
+        eventBus.publish(ValidateCodeEventType.PARAM_VALIDATED, getChannel(), account, null);
+        if (metrics != null) {
+            time = metrics.record(Step.VALIDATE_PARAM, time);
+        }
 
         // 2.验证码生成
         String code = generate();
+        eventBus.publish(ValidateCodeEventType.GENERATED, getChannel(), account, code);
+        if (metrics != null) {
+            time = metrics.record(Step.GENERATE, time);
+        }
 
         // 3.验证码保存
         saveCode(account, code);
+        if (metrics != null) {
+            time = metrics.record(Step.SAVE_CODE, time);
+        }
 
         // 判断是否自定义模板，使用 Hook
-        if (needCustomizeTemplate()) {
-            setMessageTemplate();
+        MessageTemplate template = needCustomizeTemplate() ? selectMessageTemplate() : null;
+        if (template == null) {
+            template = DEFAULT_TEMPLATE;
         }
 
         // 4.验证码发送
-        send(account, code);
+        StringBuilder message = MESSAGE_BUFFER.get();
+        message.setLength(0);
+        template.render(message, account, code, TimeUnit.MILLISECONDS.toMinutes(getExpireMillis()));
+        send(account, code, message);
+        eventBus.publish(ValidateCodeEventType.SENT, getChannel(), account, code);
+        if (metrics != null) {
+            metrics.record(Step.SEND, time);
+            metrics.incrementCreate(1);
+        }
     }
 
     /**
@@ -53,21 +139,44 @@ public abstract class AbstractValidateCode {
      * @return true: 匹配；false: 不匹配
      */
     public final boolean validate(String account, String code) {
+        ValidateCodeMetrics metrics = this.metrics;
+        long time = metrics == null ? 0 : System.nanoTime();
+
         // 1.根据账号获取验证码
         String codeByMap = getCode(account);
         if (StringUtils.isEmpty(codeByMap)) {
-            System.out.println("验证码不存在");
+            eventBus.publish(ValidateCodeEventType.MISSING, getChannel(), account, null);
+            if (metrics != null) {
+                metrics.record(Step.VALIDATE, time);
+                metrics.incrementValidateMiss();
+            }
             return false;
         }
 
         // 2.检查验证码是否正确
-        if (!codeByMap.equalsIgnoreCase(code)) {
-            System.out.println("验证码不匹配，检验失败");
+        if (!CodeMatcher.equalsIgnoreCase(codeByMap, code)) {
+            eventBus.publish(ValidateCodeEventType.MISMATCH, getChannel(), account, null);
+            if (metrics != null) {
+                metrics.record(Step.VALIDATE, time);
+                metrics.incrementValidateMismatch();
+            }
             return false;
         }
 
-        // 3.验证通过后，清除验证码
-        removeCode(account);
+        // 3.验证通过后，清除验证码；移除失败说明验证码已被并发的校验消费或已重新生成，按不存在处理
+        if (!removeCode(account, codeByMap)) {
+            eventBus.publish(ValidateCodeEventType.MISSING, getChannel(), account, null);
+            if (metrics != null) {
+                metrics.record(Step.VALIDATE, time);
+                metrics.incrementValidateMiss();
+            }
+            return false;
+        }
+        eventBus.publish(ValidateCodeEventType.VALIDATED, getChannel(), account, null);
+        if (metrics != null) {
+            metrics.record(Step.VALIDATE, time);
+            metrics.incrementValidateHit();
+        }
         return true;
     }
 
@@ -75,21 +184,73 @@ public abstract class AbstractValidateCode {
      * 保存验证码
      */
     private void saveCode(String account, String code) {
-        VALIDATE_CODE_MAP.put(account, code);
+        codeStore.save(account, code, getExpireMillis());
+        eventBus.publish(ValidateCodeEventType.SAVED, getChannel(), account, code);
     }
 
     /**
      * 获取验证码
      */
     private String getCode(String account) {
-        return VALIDATE_CODE_MAP.get(account);
+        return codeStore.get(account);
     }
 
     /**
-     * 移除验证码
+     * 移除验证码，仅当验证码仍为校验时读到的验证码时移除
+     *
+     * @return 是否已移除
+     */
+    private boolean removeCode(String account, String code) {
+        return codeStore.remove(account, code);
+    }
+
+    /**
+     * 设置事件总线，默认使用 {@link ValidateCodeEventBus#getDefault()}
+     *
+     * @param eventBus 事件总线
+     */
+    public void setEventBus(ValidateCodeEventBus eventBus) {
+        if (eventBus == null) {
+            throw new IllegalArgumentException("eventBus 不能为空");
+        }
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * 开启或关闭监控，同一子类的所有实例共享一份监控指标，
+     * 可通过 {@link ValidateCodeMetrics#snapshot()} 或 JMX 查看
+     *
+     * @param enabled 是否开启
      */
-    private void removeCode(String account) {
-        VALIDATE_CODE_MAP.remove(account);
+    public void setMetricsEnabled(boolean enabled) {
+        this.metrics = enabled ? ValidateCodeMetrics.forClass(getClass(), codeStore) : null;
+    }
+
+    /**
+     * 监控指标
+     *
+     * @return 未开启监控时返回 null
+     */
+    public ValidateCodeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 渠道名称，用于事件中区分手机、邮箱等，子类应重写并返回常量
+     *
+     * @return 渠道名称
+     */
+    protected String getChannel() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * 验证码有效期，子类可重写
+     *
+     * @return 有效期，单位毫秒
+     */
+    protected long getExpireMillis() {
+        return DEFAULT_EXPIRE_MILLIS;
     }
 
     /**
@@ -117,15 +278,19 @@ public abstract class AbstractValidateCode {
     public abstract String generate();
 
     /**
-     * 抽象方法 - 设置信息模板
+     * 抽象方法 - 选择信息模板，只在 needCustomizeTemplate 返回 true 时调用
+     * 应从缓存中选取已编译的模板，不要在此处做阻塞 I/O
+     *
+     * @return 信息模板，返回 null 时使用默认模板
      */
-    public abstract void setMessageTemplate();
+    public abstract MessageTemplate selectMessageTemplate();
 
     /**
      * 抽象方法 - 发送验证码
      *
      * @param account 账号
      * @param code    验证码
+     * @param message 渲染后的消息内容，缓冲区会被复用，只在本方法内有效，需要保留时请调用 toString()
      */
-    public abstract void send(String account, String code);
+    public abstract void send(String account, String code, CharSequence message);
 }
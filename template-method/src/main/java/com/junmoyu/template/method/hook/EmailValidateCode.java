@@ -1,8 +1,13 @@
 package com.junmoyu.template.method.hook;
 
+import com.junmoyu.template.method.hook.message.MessageTemplate;
+import com.junmoyu.template.method.hook.message.MessageTemplateCache;
+import com.junmoyu.template.method.store.CodeStore;
 import com.junmoyu.template.method.util.RandomUtils;
 import com.junmoyu.template.method.util.RegexUtils;
 
+import java.util.Locale;
+
 /**
  * 邮箱验证码
  *
@@ -11,30 +16,40 @@ import com.junmoyu.template.method.util.RegexUtils;
  */
 public class EmailValidateCode extends AbstractValidateCode {
 
+    public EmailValidateCode() {
+        super();
+    }
+
+    /**
+     * @param codeStore 验证码存储
+     */
+    public EmailValidateCode(CodeStore codeStore) {
+        super(codeStore);
+    }
+
+    @Override
+    protected String getChannel() {
+        return "邮箱";
+    }
+
     @Override
     public boolean validateParam(String account) {
-        if (RegexUtils.isEmail(account)) {
-            System.out.println("邮箱账号校验通过");
-            return true;
-        }
-        return false;
+        return RegexUtils.isEmail(account);
     }
 
     @Override
     public String generate() {
-        String code = RandomUtils.random(6);
-        System.out.println("生成六位英文 + 数字的邮箱验证码." + code);
-        return code;
+        // 六位英文 + 数字
+        return RandomUtils.random(6);
     }
 
     @Override
-    public void setMessageTemplate() {
-        System.out.println("设置了自定义的邮箱模板");
+    public MessageTemplate selectMessageTemplate() {
+        return MessageTemplateCache.getDefault().get(MessageTemplateCache.CHANNEL_EMAIL, Locale.getDefault());
     }
 
     @Override
-    public void send(String account, String code) {
+    public void send(String account, String code, CharSequence message) {
         // 发送验证码到邮箱，在此不做实现
-        System.out.println("已将验证码发送到邮箱。邮箱账号：" + account + "，验证码：" + code);
     }
 }
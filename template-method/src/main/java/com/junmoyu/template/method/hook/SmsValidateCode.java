@@ -1,10 +1,12 @@
 package com.junmoyu.template.method.hook;
 
+import com.junmoyu.template.method.hook.message.MessageTemplate;
+import com.junmoyu.template.method.hook.message.MessageTemplateCache;
+import com.junmoyu.template.method.store.CodeStore;
 import com.junmoyu.template.method.util.RandomUtils;
 import com.junmoyu.template.method.util.RegexUtils;
-import com.junmoyu.template.method.util.StringUtils;
 
-import java.util.Scanner;
+import java.util.Locale;
 
 /**
  * 短信验证码 - 添加 Hook
@@ -14,53 +16,62 @@ import java.util.Scanner;
  */
 public class SmsValidateCode extends AbstractValidateCode {
 
+    private final MessageTemplateCache templateCache;
+    private final Locale locale;
+
+    public SmsValidateCode() {
+        super();
+        this.templateCache = MessageTemplateCache.getDefault();
+        this.locale = Locale.SIMPLIFIED_CHINESE;
+    }
+
+    /**
+     * @param codeStore 验证码存储
+     */
+    public SmsValidateCode(CodeStore codeStore) {
+        this(codeStore, MessageTemplateCache.getDefault(), Locale.SIMPLIFIED_CHINESE);
+    }
+
+    /**
+     * @param codeStore     验证码存储
+     * @param templateCache 短信模板缓存
+     * @param locale        短信语言
+     */
+    public SmsValidateCode(CodeStore codeStore, MessageTemplateCache templateCache, Locale locale) {
+        super(codeStore);
+        this.templateCache = templateCache;
+        this.locale = locale;
+    }
+
+    @Override
+    protected String getChannel() {
+        return "手机";
+    }
+
     @Override
     public boolean validateParam(String account) {
-        if (RegexUtils.isMobile(account)) {
-            System.out.println("手机号码校验通过");
-            return true;
-        }
-        return false;
+        return RegexUtils.isMobile(account);
     }
 
     @Override
     public String generate() {
-        String code = RandomUtils.random(6, true);
-        System.out.println("生成六位纯数字的手机验证码：" + code);
-        return code;
+        // 六位纯数字
+        return RandomUtils.random(6, true);
     }
 
     @Override
-    public void setMessageTemplate() {
-        System.out.println("设置了自定义的短信模板");
+    public MessageTemplate selectMessageTemplate() {
+        return templateCache.get(MessageTemplateCache.CHANNEL_SMS, locale);
     }
 
     @Override
-    public void send(String account, String code) {
+    public void send(String account, String code, CharSequence message) {
         // 发送验证码到手机，在此不做实现
-        System.out.println("已将验证码发送到手机。手机号码：" + account + "，验证码：" + code);
     }
 
     @Override
     public boolean needCustomizeTemplate() {
-        String answer = getUserInput();
-        if (answer.toLowerCase().startsWith("y")) {
-            return true;
-        }
-        return false;
-    }
-
-    private String getUserInput() {
-        String answer = null;
-        System.out.print("请问您要设置自定义模板嘛（y/n）？: ");
-        Scanner s = new Scanner(System.in);
-        answer = s.nextLine();
-        if (StringUtils.isEmpty(answer)) {
-            return "no";
-        }
-        if (!answer.toLowerCase().startsWith("y") && !answer.toLowerCase().startsWith("n")) {
-            return "no";
-        }
-        return answer;
+        // 缓存中存在当前语言的短信模板时使用自定义模板
+        return templateCache.get(MessageTemplateCache.CHANNEL_SMS, locale) != null;
     }
 }
@@ -0,0 +1,127 @@
+package com.junmoyu.template.method.hook.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译后的消息模板 - 不可变，线程安全
+ * 模板文本只在编译时解析一次，拆分为文本片段和占位符，渲染时按顺序直接追加到调用方提供的 StringBuilder 中，
+ * 复用 StringBuilder 时渲染过程不分配任何对象
+ * <p>
+ * 支持的占位符：
+ * <ul>
+ *     <li>${account}：账号</li>
+ *     <li>${code}：验证码</li>
+ *     <li>${minutes}：有效期，单位分钟</li>
+ * </ul>
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class MessageTemplate {
+
+    private static final int LITERAL = 0;
+    private static final int ACCOUNT = 1;
+    private static final int CODE = 2;
+    private static final int MINUTES = 3;
+
+    private final String source;
+    private final int[] kinds;
+    private final String[] literals;
+
+    private MessageTemplate(String source, int[] kinds, String[] literals) {
+        this.source = source;
+        this.kinds = kinds;
+        this.literals = literals;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param source 模板文本
+     * @return 编译后的模板
+     * @throws IllegalArgumentException 占位符未闭合或不支持时抛出
+     */
+    public static MessageTemplate compile(String source) {
+        List<Integer> kinds = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        int start = 0;
+        while (start < source.length()) {
+            int open = source.indexOf("${", start);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("占位符未闭合：" + source);
+            }
+            if (open > start) {
+                kinds.add(LITERAL);
+                literals.add(source.substring(start, open));
+            }
+            kinds.add(placeholder(source.substring(open + 2, close)));
+            literals.add(null);
+            start = close + 1;
+        }
+        if (start < source.length()) {
+            kinds.add(LITERAL);
+            literals.add(source.substring(start));
+        }
+        int[] kindArray = new int[kinds.size()];
+        for (int i = 0; i < kindArray.length; i++) {
+            kindArray[i] = kinds.get(i);
+        }
+        return new MessageTemplate(source, kindArray, literals.toArray(new String[0]));
+    }
+
+    /**
+     * 渲染模板，结果追加到 out 的末尾
+     *
+     * @param out     输出
+     * @param account 账号
+     * @param code    验证码
+     * @param minutes 有效期，单位分钟
+     * @return out
+     */
+    public StringBuilder render(StringBuilder out, CharSequence account, CharSequence code, long minutes) {
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case ACCOUNT:
+                    out.append(account);
+                    break;
+                case CODE:
+                    out.append(code);
+                    break;
+                case MINUTES:
+                    out.append(minutes);
+                    break;
+                default:
+                    out.append(literals[i]);
+                    break;
+            }
+        }
+        return out;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static int placeholder(String name) {
+        switch (name) {
+            case "account":
+                return ACCOUNT;
+            case "code":
+                return CODE;
+            case "minutes":
+                return MINUTES;
+            default:
+                throw new IllegalArgumentException("不支持的占位符：${" + name + "}");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,75 @@
+package com.junmoyu.template.method.hook.message;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 消息模板缓存 - 线程安全
+ * 模板在注册时编译，按渠道和语言缓存，查找时不做任何 I/O，也不拼接缓存 key
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class MessageTemplateCache {
+
+    /**
+     * 渠道：短信
+     */
+    public static final String CHANNEL_SMS = "sms";
+
+    /**
+     * 渠道：邮箱
+     */
+    public static final String CHANNEL_EMAIL = "email";
+
+    private static final MessageTemplateCache DEFAULT = new MessageTemplateCache();
+
+    static {
+        DEFAULT.register(CHANNEL_SMS, Locale.SIMPLIFIED_CHINESE,
+                "【君莫语】您的验证码是 ${code}，${minutes} 分钟内有效，请勿泄露给他人。");
+        DEFAULT.register(CHANNEL_SMS, Locale.US,
+                "[junmoyu] Your verification code is ${code}, valid for ${minutes} minutes.");
+    }
+
+    private final Map<String, Map<Locale, MessageTemplate>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * 默认的模板缓存，已预置短信渠道的中英文模板
+     *
+     * @return 模板缓存
+     */
+    public static MessageTemplateCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 编译并注册模板，同一渠道和语言重复注册时覆盖
+     *
+     * @param channel 渠道
+     * @param locale  语言
+     * @param source  模板文本
+     * @return 编译后的模板
+     */
+    public MessageTemplate register(String channel, Locale locale, String source) {
+        MessageTemplate template = MessageTemplate.compile(source);
+        templates.computeIfAbsent(channel, key -> new ConcurrentHashMap<>()).put(locale, template);
+        return template;
+    }
+
+    /**
+     * 查找模板，找不到对应语言时使用 Locale.ROOT 下注册的模板
+     *
+     * @param channel 渠道
+     * @param locale  语言
+     * @return 模板，不存在时返回 null
+     */
+    public MessageTemplate get(String channel, Locale locale) {
+        Map<Locale, MessageTemplate> byLocale = templates.get(channel);
+        if (byLocale == null) {
+            return null;
+        }
+        MessageTemplate template = byLocale.get(locale);
+        return template != null ? template : byLocale.get(Locale.ROOT);
+    }
+}
@@ -0,0 +1,67 @@
+package com.junmoyu.template.method.limit;
+
+/**
+ * 限流器
+ * 实现类必须是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface RateLimiter {
+
+    /**
+     * 不限流
+     */
+    RateLimiter UNLIMITED = account -> true;
+
+    /**
+     * 尝试获取一个许可，不阻塞
+     *
+     * @param account 账号
+     * @return true: 获取成功; false: 被限流
+     */
+    boolean tryAcquire(String account);
+
+    /**
+     * 归还一个已获取的许可，用于组合限流时后面的限流器拒绝的情况
+     * 默认不归还，不支持归还的限流器在组合中被后面的限流器拒绝时会多消耗一个许可
+     *
+     * @param account 账号
+     */
+    default void release(String account) {
+    }
+
+    /**
+     * 组合多个限流器，按顺序检查，全部通过才算通过
+     * 某个限流器拒绝时，前面已获取的许可会被归还，被拒绝的请求不消耗任何一个限流器的配额
+     *
+     * @param limiters 限流器
+     * @return 组合后的限流器
+     */
+    static RateLimiter all(RateLimiter... limiters) {
+        RateLimiter[] copy = limiters.clone();
+        return new RateLimiter() {
+
+            @Override
+            public boolean tryAcquire(String account) {
+                for (int i = 0; i < copy.length; i++) {
+                    if (!copy[i].tryAcquire(account)) {
+                        for (int j = i - 1; j >= 0; j--) {
+                            copy[j].release(account);
+                        }
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void release(String account) {
+                for (RateLimiter limiter : copy) {
+                    limiter.release(account);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.junmoyu.template.method.limit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分桶的令牌桶限流器 - 无锁
+ * 每个桶只用一个 long 记录"理论到达时间"（GCRA 算法，与令牌桶等价）：
+ * 每次获取许可把它推后一个发放间隔，推后的距离超过桶容量时拒绝，通过 CAS 更新，不需要加锁
+ * 账号按哈希映射到固定数量的桶上，内存占用只与桶数量有关，与账号数量无关；
+ * 代价是少数账号会共用一个桶，桶数量越多，误伤的概率越低；
+ * 哈希带有每个实例随机生成的种子，外部无法预先构造出落在同一个桶上的账号来挤占其他账号的配额
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    /**
+     * 每个桶占用 8 个 long（64 字节，一条缓存行），避免相邻桶之间的伪共享
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final long origin = System.nanoTime();
+    private final int seed = ThreadLocalRandom.current().nextInt();
+
+    /**
+     * @param stripes          桶数量，会向上取整为 2 的幂；为 1 时即全局限流
+     * @param permitsPerSecond 每秒发放的许可数
+     * @param burst            桶容量，即允许的突发请求数
+     */
+    public TokenBucketRateLimiter(int stripes, double permitsPerSecond, int burst) {
+        if (stripes <= 0 || permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("stripes、permitsPerSecond 和 burst 必须大于 0");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.buckets = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.capacityNanos = intervalNanos * burst;
+    }
+
+    /**
+     * 按账号限流
+     *
+     * @param stripes          桶数量
+     * @param permitsPerSecond 每个账号每秒发放的许可数
+     * @param burst            每个账号允许的突发请求数
+     * @return 限流器
+     */
+    public static TokenBucketRateLimiter perAccount(int stripes, double permitsPerSecond, int burst) {
+        return new TokenBucketRateLimiter(stripes, permitsPerSecond, burst);
+    }
+
+    /**
+     * 全局限流，不区分账号
+     *
+     * @param permitsPerSecond 每秒发放的许可数
+     * @param burst            允许的突发请求数
+     * @return 限流器
+     */
+    public static TokenBucketRateLimiter global(double permitsPerSecond, int burst) {
+        return new TokenBucketRateLimiter(1, permitsPerSecond, burst);
+    }
+
+    @Override
+    public boolean tryAcquire(String account) {
+        int index = indexOf(account);
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long arrival = buckets.get(index);
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (next - now > capacityNanos) {
+                return false;
+            }
+            if (buckets.compareAndSet(index, arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还许可，把理论到达时间提前一个发放间隔
+     */
+    @Override
+    public void release(String account) {
+        buckets.getAndAdd(indexOf(account), -intervalNanos);
+    }
+
+    /**
+     * 账号所在桶的下标
+     * 不使用 String.hashCode：哈希值相同的字符串很容易构造，与种子异或也无法把它们分开，这里用带种子的 FNV-1a 逐字符计算
+     */
+    private int indexOf(String account) {
+        if (mask == 0) {
+            return 0;
+        }
+        int hash = seed;
+        if (account != null) {
+            for (int i = 0; i < account.length(); i++) {
+                hash = (hash ^ account.charAt(i)) * 0x01000193;
+            }
+        }
+        return (spread(hash) & mask) * PADDING;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
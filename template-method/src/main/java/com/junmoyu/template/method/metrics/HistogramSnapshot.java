@@ -0,0 +1,74 @@
+package com.junmoyu.template.method.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 耗时直方图的快照
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    HistogramSnapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+        this.counts = counts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return 平均耗时，单位纳秒，没有记录时返回 0
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * 百分位耗时
+     *
+     * @param percentile 百分位，取值 0 ~ 100，例如 99.9
+     * @return 耗时，单位纳秒，没有记录时返回 0
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count +
+                ", mean=" + micros(getMeanNanos()) +
+                "us, p50=" + micros(getPercentileNanos(50)) +
+                "us, p99=" + micros(getPercentileNanos(99)) +
+                "us, p999=" + micros(getPercentileNanos(99.9)) +
+                "us, max=" + micros(maxNanos) + "us";
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,88 @@
+package com.junmoyu.template.method.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图 - 线程安全，无锁
+ * 采用与 HdrHistogram 相同的对数-线性分桶：每个 2 的幂区间再均分为 32 个子桶，
+ * 相对误差不超过 1/32（约 3%），记录一次只需几次位运算和一次原子自增，不分配内存。
+ * 平均值也由各桶的代表值计算，不再单独累加总耗时
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 最大可记录 2^40 纳秒（约 18 分钟），超出的记为最大值
+     */
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 最大值很少被刷新，先读后 CAS，绝大多数记录只有一次普通的 volatile 读
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时，单位纳秒，负数记为 0
+     */
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+        counts.getAndIncrement(bucketIndex(value));
+        long max;
+        while (value > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 生成快照，与并发的记录之间不保证原子性
+     *
+     * @return 快照
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+            totalNanos += copy[i] * bucketValue(i);
+        }
+        return new HistogramSnapshot(copy, count, totalNanos, maxNanos.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * 桶的代表值，取桶内区间的中点
+     */
+    static long bucketValue(int index) {
+        int group = index >>> SUB_BUCKET_BITS;
+        long sub = index & (SUB_BUCKET_COUNT - 1);
+        if (group == 0) {
+            return sub;
+        }
+        int shift = group - 1;
+        long lower = (SUB_BUCKET_COUNT + sub) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.junmoyu.template.method.metrics;
+
+/**
+ * 模板方法中被计时的步骤
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public enum Step {
+
+    /**
+     * 账号校验，包括限流
+     */
+    VALIDATE_PARAM,
+
+    /**
+     * 验证码生成
+     */
+    GENERATE,
+
+    /**
+     * 验证码保存
+     */
+    SAVE_CODE,
+
+    /**
+     * 验证码发送，即 send() 的耗时；异步发送时在发送管道的线程中计时，不包括排队时间
+     */
+    SEND,
+
+    /**
+     * 验证码校验，包括读取、比较和移除
+     */
+    VALIDATE
+}
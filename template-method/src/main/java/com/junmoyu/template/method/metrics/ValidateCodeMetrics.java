@@ -0,0 +1,238 @@
+package com.junmoyu.template.method.metrics;
+
+import com.junmoyu.template.method.store.CodeStore;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 验证码监控指标 - 线程安全
+ * 每个具体子类一份，记录各步骤的耗时直方图、校验结果计数和存储大小（该子类所有实例使用的存储之和），
+ * 可通过 {@link #snapshot()} 拉取，也会注册为 JMX MBean：
+ * com.junmoyu.template.method:type=ValidateCodeMetrics,name=子类类名
+ * <p>
+ * 计时采用链式写法，每个步骤只调用一次 System.nanoTime()：
+ * <pre>
+ * long time = System.nanoTime();
+ * validateParam(account);
+ * time = metrics.record(Step.VALIDATE_PARAM, time);
+ * String code = generate();
+ * time = metrics.record(Step.GENERATE, time);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ValidateCodeMetrics implements ValidateCodeMetricsMXBean {
+
+    private static final String OBJECT_NAME_PREFIX = "com.junmoyu.template.method:type=ValidateCodeMetrics,name=";
+
+    private static final ConcurrentMap<Class<?>, ValidateCodeMetrics> REGISTRY = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Step.values().length];
+    private final LongAdder createCount = new LongAdder();
+    private final LongAdder invalidParamCount = new LongAdder();
+    private final LongAdder rateLimitedCount = new LongAdder();
+    private final LongAdder validateHitCount = new LongAdder();
+    private final LongAdder validateMissCount = new LongAdder();
+    private final LongAdder validateMismatchCount = new LongAdder();
+
+    /**
+     * 该子类各实例使用的存储，按对象身份去重；弱引用，实例和存储被回收后不再计入
+     */
+    private final Map<CodeStore, Boolean> stores = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ValidateCodeMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * 获取子类的监控指标，首次获取时创建并注册 MBean
+     *
+     * @param type  具体子类
+     * @param store 该实例使用的存储，计入存储大小；多个实例共用同一个存储时只计一次
+     * @return 监控指标
+     */
+    public static ValidateCodeMetrics forClass(Class<?> type, CodeStore store) {
+        ValidateCodeMetrics metrics = REGISTRY.computeIfAbsent(type, key -> register(new ValidateCodeMetrics(key.getName())));
+        if (store != null) {
+            metrics.stores.put(store, Boolean.TRUE);
+        }
+        return metrics;
+    }
+
+    /**
+     * 所有子类的监控指标快照
+     *
+     * @return 快照列表
+     */
+    public static List<ValidateCodeMetricsSnapshot> snapshotAll() {
+        List<ValidateCodeMetricsSnapshot> snapshots = new ArrayList<>();
+        for (ValidateCodeMetrics metrics : REGISTRY.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    private static ValidateCodeMetrics register(ValidateCodeMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME_PREFIX + metrics.name));
+        } catch (InstanceAlreadyExistsException e) {
+            // 同名的类由不同的类加载器加载时只注册第一个
+        } catch (JMException e) {
+            throw new IllegalStateException("注册监控 MBean 失败：" + metrics.name, e);
+        }
+        return metrics;
+    }
+
+    /**
+     * 记录一个步骤的耗时
+     *
+     * @param step       步骤
+     * @param startNanos 步骤开始时的 System.nanoTime()
+     * @return 当前的 System.nanoTime()，可作为下一个步骤的开始时间
+     */
+    public long record(Step step, long startNanos) {
+        long now = System.nanoTime();
+        histograms[step.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    public void incrementCreate(int count) {
+        createCount.add(count);
+    }
+
+    public void incrementInvalidParam() {
+        invalidParamCount.increment();
+    }
+
+    public void incrementRateLimited() {
+        rateLimitedCount.increment();
+    }
+
+    public void incrementValidateHit() {
+        validateHitCount.increment();
+    }
+
+    public void incrementValidateMiss() {
+        validateMissCount.increment();
+    }
+
+    public void incrementValidateMismatch() {
+        validateMismatchCount.increment();
+    }
+
+    /**
+     * 生成快照
+     *
+     * @return 快照
+     */
+    public ValidateCodeMetricsSnapshot snapshot() {
+        EnumMap<Step, HistogramSnapshot> steps = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            steps.put(step, histograms[step.ordinal()].snapshot());
+        }
+        return new ValidateCodeMetricsSnapshot(name, steps, createCount.sum(), invalidParamCount.sum(),
+                rateLimitedCount.sum(), validateHitCount.sum(), validateMissCount.sum(),
+                validateMismatchCount.sum(), getStoreSize());
+    }
+
+    @Override
+    public long getCreateCount() {
+        return createCount.sum();
+    }
+
+    @Override
+    public long getInvalidParamCount() {
+        return invalidParamCount.sum();
+    }
+
+    @Override
+    public long getRateLimitedCount() {
+        return rateLimitedCount.sum();
+    }
+
+    @Override
+    public long getValidateHitCount() {
+        return validateHitCount.sum();
+    }
+
+    @Override
+    public long getValidateMissCount() {
+        return validateMissCount.sum();
+    }
+
+    @Override
+    public long getValidateMismatchCount() {
+        return validateMismatchCount.sum();
+    }
+
+    /**
+     * 所有关联存储的验证码数量之和，先复制存储列表再在锁外读取，远程存储的 size 不会阻塞关联新存储
+     */
+    @Override
+    public int getStoreSize() {
+        List<CodeStore> current;
+        synchronized (stores) {
+            current = new ArrayList<>(stores.keySet());
+        }
+        if (current.isEmpty()) {
+            return -1;
+        }
+        int size = 0;
+        for (CodeStore store : current) {
+            size += store.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Map<String, Long> getStepCount() {
+        return stepValues(HistogramSnapshot::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getStepMeanNanos() {
+        return stepValues(HistogramSnapshot::getMeanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getStepP50Nanos() {
+        return stepValues(snapshot -> snapshot.getPercentileNanos(50));
+    }
+
+    @Override
+    public Map<String, Long> getStepP99Nanos() {
+        return stepValues(snapshot -> snapshot.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Long> getStepMaxNanos() {
+        return stepValues(HistogramSnapshot::getMaxNanos);
+    }
+
+    private Map<String, Long> stepValues(ToLongFunction<HistogramSnapshot> value) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Step step : Step.values()) {
+            values.put(step.name(), value.applyAsLong(histograms[step.ordinal()].snapshot()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package com.junmoyu.template.method.metrics;
+
+import java.util.Map;
+
+/**
+ * 验证码监控指标的 JMX 接口，耗时单位均为纳秒，Map 的 key 为 {@link Step} 的名称
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public interface ValidateCodeMetricsMXBean {
+
+    long getCreateCount();
+
+    long getInvalidParamCount();
+
+    long getRateLimitedCount();
+
+    long getValidateHitCount();
+
+    long getValidateMissCount();
+
+    long getValidateMismatchCount();
+
+    int getStoreSize();
+
+    Map<String, Long> getStepCount();
+
+    Map<String, Long> getStepMeanNanos();
+
+    Map<String, Long> getStepP50Nanos();
+
+    Map<String, Long> getStepP99Nanos();
+
+    Map<String, Long> getStepMaxNanos();
+}
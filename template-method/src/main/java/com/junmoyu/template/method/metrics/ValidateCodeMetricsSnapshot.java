@@ -0,0 +1,111 @@
+package com.junmoyu.template.method.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 验证码监控指标的快照
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ValidateCodeMetricsSnapshot {
+
+    private final String name;
+    private final Map<Step, HistogramSnapshot> steps;
+    private final long createCount;
+    private final long invalidParamCount;
+    private final long rateLimitedCount;
+    private final long validateHitCount;
+    private final long validateMissCount;
+    private final long validateMismatchCount;
+    private final int storeSize;
+
+    ValidateCodeMetricsSnapshot(String name, EnumMap<Step, HistogramSnapshot> steps,
+                                long createCount, long invalidParamCount, long rateLimitedCount,
+                                long validateHitCount, long validateMissCount, long validateMismatchCount,
+                                int storeSize) {
+        this.name = name;
+        this.steps = Collections.unmodifiableMap(steps);
+        this.createCount = createCount;
+        this.invalidParamCount = invalidParamCount;
+        this.rateLimitedCount = rateLimitedCount;
+        this.validateHitCount = validateHitCount;
+        this.validateMissCount = validateMissCount;
+        this.validateMismatchCount = validateMismatchCount;
+        this.storeSize = storeSize;
+    }
+
+    /**
+     * @return 子类的类名
+     */
+    public String getName() {
+        return name;
+    }
+
+    public HistogramSnapshot getStep(Step step) {
+        return steps.get(step);
+    }
+
+    public Map<Step, HistogramSnapshot> getSteps() {
+        return steps;
+    }
+
+    public long getCreateCount() {
+        return createCount;
+    }
+
+    public long getInvalidParamCount() {
+        return invalidParamCount;
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+
+    public long getValidateHitCount() {
+        return validateHitCount;
+    }
+
+    public long getValidateMissCount() {
+        return validateMissCount;
+    }
+
+    public long getValidateMismatchCount() {
+        return validateMismatchCount;
+    }
+
+    /**
+     * @return 该子类所有实例使用的存储中的验证码数量之和，未关联存储时为 -1
+     */
+    public int getStoreSize() {
+        return storeSize;
+    }
+
+    /**
+     * 校验命中率，没有校验请求时返回 1.0
+     *
+     * @return 命中率
+     */
+    public double validateHitRate() {
+        long total = validateHitCount + validateMissCount + validateMismatchCount;
+        return total == 0 ? 1.0 : (double) validateHitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name)
+                .append(": create=").append(createCount)
+                .append(", invalidParam=").append(invalidParamCount)
+                .append(", rateLimited=").append(rateLimitedCount)
+                .append(", validateHit=").append(validateHitCount)
+                .append(", validateMiss=").append(validateMissCount)
+                .append(", validateMismatch=").append(validateMismatchCount)
+                .append(", storeSize=").append(storeSize);
+        for (Map.Entry<Step, HistogramSnapshot> entry : steps.entrySet()) {
+            builder.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.junmoyu.template.method.send;
+
+/**
+ * 发送失败时的重试策略
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+    /**
+     * 不重试
+     */
+    RetryPolicy NONE = (attempt, error) -> -1;
+
+    /**
+     * 计算下一次重试前的等待时间
+     *
+     * @param attempt 已经失败的次数，从 1 开始
+     * @param error   本次失败的异常
+     * @return 等待时间，单位毫秒；小于 0 表示不再重试
+     */
+    long backoffMillis(int attempt, Throwable error);
+
+    /**
+     * 固定间隔重试
+     *
+     * @param maxRetries    最大重试次数
+     * @param backoffMillis 每次重试前的等待时间，单位毫秒
+     * @return 重试策略
+     */
+    static RetryPolicy fixed(int maxRetries, long backoffMillis) {
+        return (attempt, error) -> attempt <= maxRetries ? backoffMillis : -1;
+    }
+}
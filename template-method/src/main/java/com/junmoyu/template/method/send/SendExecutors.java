@@ -0,0 +1,58 @@
+package com.junmoyu.template.method.send;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 发送线程池工厂
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SendExecutors {
+
+    private SendExecutors() {
+    }
+
+    /**
+     * 创建发送线程池，JDK 支持虚拟线程（JDK 21+）时优先使用虚拟线程，否则使用固定数量的平台线程
+     *
+     * @param threads 平台线程数量，使用虚拟线程时忽略
+     * @return 线程池
+     */
+    public static ExecutorService newSendExecutor(int threads) {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        return virtualExecutor != null ? virtualExecutor : newPlatformThreadExecutor(threads);
+    }
+
+    /**
+     * 创建固定数量的平台线程池，线程为守护线程
+     *
+     * @param threads 线程数量
+     * @return 线程池
+     */
+    public static ExecutorService newPlatformThreadExecutor(int threads) {
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "code-sender-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 项目按 JDK 8 编译，通过反射调用 Executors.newVirtualThreadPerTaskExecutor
+     *
+     * @return 虚拟线程池，JDK 不支持时返回 null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.junmoyu.template.method.send;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 异步发送管道
+ * 发送请求先进入有界队列，再由若干个消费者从队列中取出并调用发送方法，调用方线程不再等待短信网关的响应
+ * 队列满时调用方最多等待 offerTimeout，超时则拒绝，以此形成背压
+ * 关闭后不再接收新请求，已进入队列的请求仍会被发送，每个提交的请求最终都会完成或异常完成
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class SendPipeline implements Closeable {
+
+    private final BlockingQueue<SendTask> queue;
+    private final long offerTimeoutMillis;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * 由管道自己创建的线程池，关闭管道时一并关闭；外部传入的线程池由调用方管理，为 null
+     */
+    private final ExecutorService ownedExecutor;
+    private volatile boolean running = true;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 使用默认的发送线程池（支持时为虚拟线程），队列满时最多等待 100 毫秒，不重试
+     *
+     * @param queueCapacity 队列容量
+     * @param consumers     消费者数量
+     */
+    public SendPipeline(int queueCapacity, int consumers) {
+        this(queueCapacity, consumers, SendExecutors.newSendExecutor(consumers), 100, RetryPolicy.NONE, true);
+    }
+
+    /**
+     * @param queueCapacity      队列容量
+     * @param consumers          消费者数量，即同时进行中的发送数量
+     * @param executor           运行消费者的线程池，至少能同时运行 consumers 个任务
+     * @param offerTimeoutMillis 队列满时的最长等待时间，单位毫秒
+     * @param retryPolicy        发送失败时的重试策略
+     */
+    public SendPipeline(int queueCapacity, int consumers, Executor executor,
+                        long offerTimeoutMillis, RetryPolicy retryPolicy) {
+        this(queueCapacity, consumers, executor, offerTimeoutMillis, retryPolicy, false);
+    }
+
+    private SendPipeline(int queueCapacity, int consumers, Executor executor,
+                         long offerTimeoutMillis, RetryPolicy retryPolicy, boolean ownsExecutor) {
+        if (queueCapacity <= 0 || consumers <= 0) {
+            if (ownsExecutor) {
+                ((ExecutorService) executor).shutdown();
+            }
+            throw new IllegalArgumentException("queueCapacity 和 consumers 必须大于 0");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.retryPolicy = retryPolicy == null ? RetryPolicy.NONE : retryPolicy;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(this::consume);
+        }
+    }
+
+    /**
+     * 提交发送请求
+     *
+     * @param account 账号
+     * @param code    验证码
+     * @param sender  实际的发送方法
+     * @return 发送方法成功返回（即消息已交给网关）后完成；被拒绝或重试耗尽后异常完成
+     */
+    public CompletableFuture<Void> submit(String account, String code, BiConsumer<String, String> sender) {
+        SendTask task = new SendTask(account, code, sender);
+        if (!running) {
+            task.future.completeExceptionally(new RejectedExecutionException("发送管道已关闭"));
+            return task.future;
+        }
+        try {
+            if (!queue.offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCount.increment();
+                task.future.completeExceptionally(new RejectedExecutionException("发送队列已满"));
+            } else if (!running && queue.remove(task)) {
+                // 入队前管道被关闭，消费者可能已经退出；仍在队列中说明没有消费者取走，由这里拒绝
+                task.future.completeExceptionally(new RejectedExecutionException("发送管道已关闭"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.future.completeExceptionally(e);
+        }
+        return task.future;
+    }
+
+    /**
+     * 关闭管道，不再接收新请求，队列中剩余的请求仍会被发送
+     * 管道自己创建的线程池在剩余请求发送完成后关闭
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * 平均发送耗时，只统计成功的发送
+     *
+     * @return 平均耗时，单位微秒
+     */
+    public long getAverageLatencyMicros() {
+        long count = sentCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.sum() / count);
+    }
+
+    /**
+     * 最大发送耗时
+     *
+     * @return 最大耗时，单位微秒
+     */
+    public long getMaxLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get());
+    }
+
+    /**
+     * 发送成功回调，子类可重写
+     *
+     * @param account      账号
+     * @param latencyNanos 本次发送耗时，单位纳秒
+     */
+    protected void onSent(String account, long latencyNanos) {
+    }
+
+    /**
+     * 重试耗尽后的失败回调，子类可重写，例如记录日志或转入人工补发
+     *
+     * @param account 账号
+     * @param error   最后一次失败的异常
+     */
+    protected void onFailure(String account, Throwable error) {
+        System.err.println("验证码发送失败，账号：" + account + "，原因：" + error);
+    }
+
+    private void consume() {
+        while (running || !queue.isEmpty()) {
+            SendTask task;
+            try {
+                task = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task != null) {
+                execute(task);
+            }
+        }
+    }
+
+    private void execute(SendTask task) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                task.sender.accept(task.account, task.code);
+            } catch (RuntimeException e) {
+                long backoff = retryPolicy.backoffMillis(attempt, e);
+                if (backoff < 0 || !sleep(backoff)) {
+                    fail(task, e);
+                    return;
+                }
+                retryCount.increment();
+                continue;
+            } catch (Throwable e) {
+                // Error 不重试，但不能让它结束消费者线程，也不能让调用方一直等待
+                fail(task, e);
+                return;
+            }
+            long latency = System.nanoTime() - start;
+            sentCount.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+            task.future.complete(null);
+            // 回调在发送成功之后执行，回调异常不会导致重复发送
+            runCallback(() -> onSent(task.account, latency));
+            return;
+        }
+    }
+
+    private void fail(SendTask task, Throwable error) {
+        failedCount.increment();
+        task.future.completeExceptionally(error);
+        runCallback(() -> onFailure(task.account, error));
+    }
+
+    /**
+     * 执行子类回调，回调异常不能结束消费者线程
+     */
+    private static void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            System.err.println("发送回调执行异常：" + e);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 待发送的请求
+     */
+    private static final class SendTask {
+
+        private final String account;
+        private final String code;
+        private final BiConsumer<String, String> sender;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private SendTask(String account, String code, BiConsumer<String, String> sender) {
+            this.account = account;
+            this.code = code;
+            this.sender = sender;
+        }
+    }
+}
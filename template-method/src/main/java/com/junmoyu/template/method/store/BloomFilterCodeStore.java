@@ -0,0 +1,377 @@
+package com.junmoyu.template.method.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带布隆过滤器的验证码存储 - 线程安全，无锁读写
+ * 包装任意 {@link CodeStore}，保存验证码时把账号加入布隆过滤器；查询时过滤器判定不存在的账号直接返回 null，
+ * 不会访问底层存储。攻击流量中绝大多数账号从未发过验证码，这部分请求只需计算一次哈希和几次位读取
+ * <p>
+ * 布隆过滤器无法删除元素，因此按代轮转：
+ * 1. 新账号总是加入最新一代，查询时依次检查所有保留的代；
+ * 2. 最新一代写满（插入数达到容量）时，新建一个容量翻倍的代，实现随验证码数量自动扩容；
+ * 3. 最新一代存在时间超过验证码最长有效期时，按上一周期的实际插入数新建一代，容量可以回落；
+ * 4. 旧代在被替换后再经过一个最长有效期，其中的验证码必然已经过期，此时整代丢弃。
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class BloomFilterCodeStore implements CodeStore {
+
+    /**
+     * 每插入约 64 次检查一次是否需要轮转，避免每次保存都汇总计数
+     */
+    private static final int ROTATE_CHECK_MASK = 63;
+
+    /**
+     * 旧代额外保留的时间，覆盖轮转瞬间仍写入旧代的并发保存
+     */
+    private static final long RETIRE_SLACK_MILLIS = 1000;
+
+    private final CodeStore delegate;
+    private final int initialCapacity;
+    private final double falsePositiveRate;
+
+    /**
+     * 由新到旧排列，轮转时整体替换
+     */
+    private volatile Generation[] generations;
+
+    /**
+     * 已保存的验证码的最长有效期，决定轮转周期和旧代的保留时间
+     */
+    private volatile long maxTtlMillis;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder passedCount = new LongAdder();
+    private final LongAdder falsePositiveCount = new LongAdder();
+
+    /**
+     * 初始容量 65536，目标误判率 1%
+     *
+     * @param delegate 底层存储
+     */
+    public BloomFilterCodeStore(CodeStore delegate) {
+        this(delegate, 1 << 16, 0.01);
+    }
+
+    /**
+     * @param delegate          底层存储
+     * @param initialCapacity   每一代的初始容量，即预计在一个有效期内发出的验证码数量
+     * @param falsePositiveRate 每一代在写满时的目标误判率
+     */
+    public BloomFilterCodeStore(CodeStore delegate, int initialCapacity, double falsePositiveRate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate 不能为空");
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity 必须大于 0");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate 必须在 0 到 1 之间");
+        }
+        this.delegate = delegate;
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.generations = new Generation[]{new Generation(initialCapacity, falsePositiveRate, System.currentTimeMillis())};
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        // 先加入过滤器再写入底层存储，保证写入完成后的查询一定能通过过滤器
+        put(account, ttlMillis);
+        delegate.save(account, code, ttlMillis);
+    }
+
+    @Override
+    public void saveAll(Map<String, String> codes, long ttlMillis) {
+        for (String account : codes.keySet()) {
+            put(account, ttlMillis);
+        }
+        delegate.saveAll(codes, ttlMillis);
+    }
+
+    @Override
+    public String get(String account) {
+        if (!mightContain(account)) {
+            rejectedCount.increment();
+            return null;
+        }
+        passedCount.increment();
+        String code = delegate.get(account);
+        if (code == null) {
+            falsePositiveCount.increment();
+        }
+        return code;
+    }
+
+    @Override
+    public void remove(String account) {
+        delegate.remove(account);
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        return delegate.remove(account, code);
+    }
+
+    @Override
+    public void remove(CharSequence account) {
+        delegate.remove(account);
+    }
+
+    @Override
+    public void remove(long account) {
+        delegate.remove(account);
+    }
+
+    @Override
+    public Verification verifyAndRemove(CharSequence account, CharSequence code) {
+        if (!filter(hash(account))) {
+            return Verification.MISSING;
+        }
+        return countFalsePositive(delegate.verifyAndRemove(account, code));
+    }
+
+    @Override
+    public Verification verifyAndRemove(long account, int code) {
+        if (!filter(hash(account))) {
+            return Verification.MISSING;
+        }
+        return countFalsePositive(delegate.verifyAndRemove(account, code));
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        delegate.forEach(visitor);
+    }
+
+    @Override
+    public boolean isIterable() {
+        return delegate.isIterable();
+    }
+
+    /**
+     * 判断账号是否可能存在验证码
+     *
+     * @param account 账号
+     * @return false 表示一定不存在
+     */
+    public boolean mightContain(String account) {
+        return mightContain(hash(account));
+    }
+
+    /**
+     * 经过过滤器并计数
+     *
+     * @return false 表示一定不存在
+     */
+    private boolean filter(long hash) {
+        if (!mightContain(hash)) {
+            rejectedCount.increment();
+            return false;
+        }
+        passedCount.increment();
+        return true;
+    }
+
+    private Verification countFalsePositive(Verification verification) {
+        if (verification == Verification.MISSING) {
+            falsePositiveCount.increment();
+        }
+        return verification;
+    }
+
+    private boolean mightContain(long hash) {
+        for (Generation generation : generations) {
+            if (generation.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 统计快照
+     *
+     * @return 统计信息
+     */
+    public BloomFilterStats stats() {
+        Generation[] current = generations;
+        long bitCount = 0;
+        double noFalsePositive = 1.0;
+        for (Generation generation : current) {
+            bitCount += generation.bitCount();
+            noFalsePositive *= 1 - generation.estimatedFalsePositiveRate();
+        }
+        return new BloomFilterStats(rejectedCount.sum(), passedCount.sum(), falsePositiveCount.sum(),
+                current.length, bitCount, 1 - noFalsePositive);
+    }
+
+    private void put(String account, long ttlMillis) {
+        if (ttlMillis > maxTtlMillis) {
+            updateMaxTtl(ttlMillis);
+        }
+        Generation newest = generations[0];
+        newest.put(hash(account));
+        if ((ThreadLocalRandom.current().nextInt() & ROTATE_CHECK_MASK) == 0) {
+            rotateIfNecessary(newest);
+        }
+    }
+
+    private synchronized void updateMaxTtl(long ttlMillis) {
+        if (ttlMillis > maxTtlMillis) {
+            maxTtlMillis = ttlMillis;
+        }
+    }
+
+    private synchronized void rotateIfNecessary(Generation newest) {
+        Generation[] current = generations;
+        if (current[0] != newest) {
+            // 其他线程已经完成轮转
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long insertions = newest.insertions.sum();
+        int capacity;
+        if (insertions >= newest.capacity) {
+            capacity = newest.capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : newest.capacity * 2;
+        } else if (now - newest.createdAt >= maxTtlMillis) {
+            capacity = (int) Math.max(initialCapacity, Math.min(Integer.MAX_VALUE, insertions + (insertions >> 2)));
+        } else {
+            return;
+        }
+        newest.retireAt = now + maxTtlMillis + RETIRE_SLACK_MILLIS;
+
+        Generation[] next = new Generation[current.length + 1];
+        next[0] = new Generation(capacity, falsePositiveRate, now);
+        int length = 1;
+        for (Generation generation : current) {
+            if (generation.retireAt > now) {
+                next[length++] = generation;
+            }
+        }
+        generations = length == next.length ? next : Arrays.copyOf(next, length);
+    }
+
+    private static long hash(CharSequence account) {
+        // FNV-1a，再经 MurmurHash3 的 fmix64 打散
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < account.length(); i++) {
+            hash ^= account.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return fmix64(hash);
+    }
+
+    /**
+     * 与 hash(String.valueOf(account)) 结果相同，从高位到低位逐个数字计算，不创建 String
+     */
+    private static long hash(long account) {
+        long hash = 0xcbf29ce484222325L;
+        if (account < 0) {
+            hash ^= '-';
+            hash *= 0x100000001b3L;
+        }
+        long divisor = 1;
+        while (account / divisor <= -10 || account / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            hash ^= '0' + Math.abs(account / divisor % 10);
+            hash *= 0x100000001b3L;
+        }
+        return fmix64(hash);
+    }
+
+    private static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 一代布隆过滤器，位数组大小取 2 的幂，k 个位置由两个哈希值组合得到（Kirsch-Mitzenmacher）
+     */
+    private static final class Generation {
+
+        private final AtomicLongArray bits;
+        private final long mask;
+        private final int hashCount;
+        private final int capacity;
+        private final long createdAt;
+        private final LongAdder insertions = new LongAdder();
+        private final LongAdder setBits = new LongAdder();
+
+        /**
+         * 被替换为旧代时设置，之前为 Long.MAX_VALUE
+         */
+        private volatile long retireAt = Long.MAX_VALUE;
+
+        private Generation(int capacity, double falsePositiveRate, long createdAt) {
+            // m = -n * ln(p) / (ln2)^2，向上取整到 2 的幂，最少 64 位
+            double optimalBits = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            long bitCount = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+            bitCount = Math.min(bitCount, 1L << 36);
+            this.bits = new AtomicLongArray((int) (bitCount >>> 6));
+            this.mask = bitCount - 1;
+            // k = m / n * ln2
+            this.hashCount = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / capacity * Math.log(2))));
+            this.capacity = capacity;
+            this.createdAt = createdAt;
+        }
+
+        private void put(long hash) {
+            long h2 = fmix64(hash + 0x9e3779b97f4a7c15L) | 1;
+            long combined = hash;
+            for (int i = 0; i < hashCount; i++, combined += h2) {
+                long index = combined & mask;
+                int word = (int) (index >>> 6);
+                long bit = 1L << index;
+                long value;
+                while (((value = bits.get(word)) & bit) == 0) {
+                    if (bits.compareAndSet(word, value, value | bit)) {
+                        setBits.increment();
+                        break;
+                    }
+                }
+            }
+            insertions.increment();
+        }
+
+        private boolean mightContain(long hash) {
+            long h2 = fmix64(hash + 0x9e3779b97f4a7c15L) | 1;
+            long combined = hash;
+            for (int i = 0; i < hashCount; i++, combined += h2) {
+                long index = combined & mask;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long bitCount() {
+            return mask + 1;
+        }
+
+        /**
+         * 误判率约等于位数组填充率的 k 次方
+         */
+        private double estimatedFalsePositiveRate() {
+            return Math.pow((double) setBits.sum() / bitCount(), hashCount);
+        }
+    }
+}
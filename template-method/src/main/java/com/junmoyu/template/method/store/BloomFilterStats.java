@@ -0,0 +1,95 @@
+package com.junmoyu.template.method.store;
+
+/**
+ * 布隆过滤器的统计快照
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class BloomFilterStats {
+
+    private final long rejectedCount;
+    private final long passedCount;
+    private final long falsePositiveCount;
+    private final int generationCount;
+    private final long bitCount;
+    private final double estimatedFalsePositiveRate;
+
+    public BloomFilterStats(long rejectedCount, long passedCount, long falsePositiveCount,
+                            int generationCount, long bitCount, double estimatedFalsePositiveRate) {
+        this.rejectedCount = rejectedCount;
+        this.passedCount = passedCount;
+        this.falsePositiveCount = falsePositiveCount;
+        this.generationCount = generationCount;
+        this.bitCount = bitCount;
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+    }
+
+    /**
+     * @return 被过滤器直接拒绝（未访问底层存储）的查询次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return 通过过滤器、访问了底层存储的查询次数
+     */
+    public long getPassedCount() {
+        return passedCount;
+    }
+
+    /**
+     * @return 通过过滤器但底层存储未命中的查询次数，包含真正的误判以及已过期、已移除的验证码
+     */
+    public long getFalsePositiveCount() {
+        return falsePositiveCount;
+    }
+
+    /**
+     * @return 当前保留的过滤器代数
+     */
+    public int getGenerationCount() {
+        return generationCount;
+    }
+
+    /**
+     * @return 所有代的位数组总大小，单位 bit
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * 根据各代位数组的填充率估算的误判率
+     *
+     * @return 估算误判率
+     */
+    public double getEstimatedFalsePositiveRate() {
+        return estimatedFalsePositiveRate;
+    }
+
+    /**
+     * 实测误判率：不存在的账号中，未被过滤器拒绝的比例，没有请求时返回 0.0
+     * 由于过期、移除的验证码也计入误判，实测值是真实误判率的上界
+     *
+     * @return 实测误判率
+     */
+    public double getObservedFalsePositiveRate() {
+        long absentCount = rejectedCount + falsePositiveCount;
+        return absentCount == 0 ? 0.0 : (double) falsePositiveCount / absentCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BloomFilterStats{" +
+                "rejectedCount=" + rejectedCount +
+                ", passedCount=" + passedCount +
+                ", falsePositiveCount=" + falsePositiveCount +
+                ", generationCount=" + generationCount +
+                ", bitCount=" + bitCount +
+                ", estimatedFalsePositiveRate=" + estimatedFalsePositiveRate +
+                ", observedFalsePositiveRate=" + getObservedFalsePositiveRate() +
+                '}';
+    }
+}
@@ -0,0 +1,517 @@
+package com.junmoyu.template.method.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界验证码存储 - 线程安全，支持过期
+ * 采用 W-TinyLFU 淘汰策略，按账号哈希分成多个分段，每个分段独立加锁、独立淘汰：
+ * 1. 新账号的验证码先进入窗口区（window，约占容量的 1%），窗口区按 LRU 淘汰；
+ * 2. 窗口区溢出的验证码是候选者，主区（试用区 probation + 保护区 protected）未满时直接进入试用区；
+ * 3. 主区已满时，候选者与试用区中最久未访问的验证码（受害者）比较账号的访问频率（Count-Min Sketch 估算），
+ *    受害者是等待校验的验证码，保留进入主区时的频率并额外加权，候选者严格更高才替换受害者，否则丢弃候选者；
+ * 4. 试用区中被再次访问（校验）的验证码晋升到保护区，保护区满时最久未访问的降级回试用区；
+ * 5. 需要淘汰时，先移除已过期的验证码，只有没有过期验证码可移除时才淘汰未过期的验证码。
+ * <p>
+ * 刷量请求的账号通常只出现一次，即使因哈希冲突被高估，也达不到等待校验的验证码加权后的权重，
+ * 因此刷量只会在窗口区内互相淘汰，不会挤掉主区中正在等待校验的验证码；短时间内多次请求的账号仍然可以进入主区。
+ * 同一账号在验证码未失效时重新保存只是覆盖，不增加频率，每个号码连续请求两次也无法提高频率；
+ * 代价是主区被占满后，刷量期间新用户的验证码只能在窗口区中停留很短的时间
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class BoundedCodeStore implements CodeStore {
+
+    /**
+     * 窗口区占分段容量的比例
+     */
+    private static final double WINDOW_RATIO = 0.01;
+
+    /**
+     * 保护区占主区容量的比例
+     */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /**
+     * 每个分段至少保存的验证码数量，容量较小时减少分段数量，保证淘汰策略有效
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    /**
+     * 等待校验的验证码在准入比较中额外获得的权重
+     */
+    private static final int PENDING_BONUS = 1;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    /**
+     * 账号哈希的种子，外部无法预先构造出哈希冲突的账号
+     */
+    private final int seed = ThreadLocalRandom.current().nextInt();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最多保存的验证码数量
+     */
+    public BoundedCodeStore(int maximumSize) {
+        this(maximumSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param maximumSize 最多保存的验证码数量，平均分配到各分段
+     * @param segments    分段数量，会向上取整为 2 的幂，容量较小时自动减少
+     */
+    public BoundedCodeStore(int maximumSize, int segments) {
+        if (maximumSize <= 0 || segments <= 0) {
+            throw new IllegalArgumentException("maximumSize 和 segments 必须大于 0");
+        }
+        int count = segments == 1 ? 1 : Integer.highestOneBit(segments - 1) << 1;
+        while (count > 1 && maximumSize / count < MIN_SEGMENT_CAPACITY) {
+            count >>= 1;
+        }
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            // 余数分给前面的分段，各分段容量之和正好是 maximumSize
+            this.segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+        }
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        int hash = hash(account);
+        long now = System.currentTimeMillis();
+        segmentFor(hash).save(account, hash, code, now + ttlMillis, now);
+    }
+
+    @Override
+    public String get(String account) {
+        int hash = hash(account);
+        String code = segmentFor(hash).get(account, hash, System.currentTimeMillis());
+        if (code == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return code;
+    }
+
+    @Override
+    public void remove(String account) {
+        segmentFor(hash(account)).remove(account);
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        return segmentFor(hash(account)).remove(account, code, System.currentTimeMillis());
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 逐个分段在锁内复制引用，访问者在锁外执行，不会长时间阻塞读写
+     */
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        for (Segment segment : segments) {
+            long now = System.currentTimeMillis();
+            for (Node node : segment.snapshot()) {
+                if (!node.isExpired(now)) {
+                    visitor.visit(node.account, node.code, node.expireAt);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isIterable() {
+        return true;
+    }
+
+    /**
+     * 获取命中、未命中及淘汰次数的统计快照
+     *
+     * @return 统计快照
+     */
+    public CodeStoreStats stats() {
+        return new CodeStoreStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), size());
+    }
+
+    private Segment segmentFor(int hash) {
+        // 低位用于 Sketch 的下标，分段取高位
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    /**
+     * 带种子的 FNV-1a，再经过 MurmurHash3 fmix32 打散
+     */
+    private int hash(String account) {
+        int hash = seed;
+        for (int i = 0; i < account.length(); i++) {
+            hash = (hash ^ account.charAt(i)) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * 一个分段：窗口区、试用区、保护区三个 LRU 队列，一个按过期时间排序的堆和一个频率估算器，全部由分段锁保护
+     */
+    private final class Segment {
+
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final int protectedCapacity;
+
+        /**
+         * LinkedHashMap 按插入顺序排列，头部即为最久未访问的验证码
+         */
+        private final Map<String, Node> window = new LinkedHashMap<>();
+        private final Map<String, Node> probation = new LinkedHashMap<>();
+        private final Map<String, Node> protectedSegment = new LinkedHashMap<>();
+
+        /**
+         * 按过期时间排序，被移除或覆盖的节点只做标记，出堆时跳过，堆中失效节点过多时重建
+         */
+        private PriorityQueue<Node> expiry = new PriorityQueue<>();
+        private final FrequencySketch sketch;
+
+        private Segment(int capacity) {
+            this.windowCapacity = Math.max(1, (int) (capacity * WINDOW_RATIO));
+            this.mainCapacity = capacity - windowCapacity;
+            this.protectedCapacity = (int) (mainCapacity * PROTECTED_RATIO);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        private synchronized void save(String account, int hash, String code, long expireAt, long now) {
+            Node node = new Node(account, hash, code, expireAt);
+            Map<String, Node> queue = queueOf(account);
+            if (queue != null) {
+                // 覆盖已有的验证码，留在原来的队列中，不计入频率
+                Node old = queue.remove(account);
+                old.removed = true;
+                queue.put(account, node);
+            } else {
+                sketch.increment(hash);
+                window.put(account, node);
+            }
+            expiry.add(node);
+            maintain(now);
+        }
+
+        private synchronized String get(String account, int hash, long now) {
+            sketch.increment(hash);
+            Map<String, Node> queue = queueOf(account);
+            if (queue == null) {
+                return null;
+            }
+            Node node = queue.get(account);
+            if (node.isExpired(now)) {
+                unlink(queue, account);
+                return null;
+            }
+            queue.remove(account);
+            if (queue == probation) {
+                addProtected(node);
+            } else {
+                queue.put(account, node);
+            }
+            return node.code;
+        }
+
+        private synchronized void remove(String account) {
+            Map<String, Node> queue = queueOf(account);
+            if (queue != null) {
+                unlink(queue, account);
+            }
+        }
+
+        private synchronized boolean remove(String account, String code, long now) {
+            Map<String, Node> queue = queueOf(account);
+            if (queue == null) {
+                return false;
+            }
+            Node node = queue.get(account);
+            if (node.isExpired(now) || !node.code.equals(code)) {
+                return false;
+            }
+            unlink(queue, account);
+            return true;
+        }
+
+        private synchronized int size() {
+            return window.size() + probation.size() + protectedSegment.size();
+        }
+
+        private synchronized List<Node> snapshot() {
+            List<Node> nodes = new ArrayList<>(size());
+            nodes.addAll(window.values());
+            nodes.addAll(probation.values());
+            nodes.addAll(protectedSegment.values());
+            return nodes;
+        }
+
+        private Map<String, Node> queueOf(String account) {
+            if (window.containsKey(account)) {
+                return window;
+            } else if (probation.containsKey(account)) {
+                return probation;
+            } else if (protectedSegment.containsKey(account)) {
+                return protectedSegment;
+            }
+            return null;
+        }
+
+        private void unlink(Map<String, Node> queue, String account) {
+            queue.remove(account).removed = true;
+        }
+
+        /**
+         * 放入保护区的尾部，保护区满时把最久未访问的验证码降级到试用区
+         */
+        private void addProtected(Node node) {
+            protectedSegment.put(node.account, node);
+            if (protectedSegment.size() > protectedCapacity) {
+                Node eldest = pollFirst(protectedSegment);
+                probation.put(eldest.account, eldest);
+            }
+        }
+
+        /**
+         * 超出容量时先移除已过期的验证码，仍然超出时再由窗口区溢出的候选者与试用区的受害者按频率决出去留
+         */
+        private void maintain(long now) {
+            if (size() > windowCapacity + mainCapacity) {
+                purgeExpired(now);
+            }
+            while (window.size() > windowCapacity) {
+                Node candidate = pollFirst(window);
+                if (probation.size() + protectedSegment.size() < mainCapacity) {
+                    admit(candidate);
+                    continue;
+                }
+                Map<String, Node> victimQueue = probation.isEmpty() ? protectedSegment : probation;
+                Node victim = victimQueue.isEmpty() ? null : victimQueue.values().iterator().next();
+                if (victim != null && sketch.frequency(candidate.hash) > weight(victim)) {
+                    unlink(victimQueue, victim.account);
+                    admit(candidate);
+                } else {
+                    candidate.removed = true;
+                }
+                evictionCount.increment();
+            }
+            if (expiry.size() > 2 * size() + 16) {
+                rebuildExpiry();
+            }
+        }
+
+        /**
+         * 进入主区，记录此时的访问频率
+         */
+        private void admit(Node node) {
+            node.admittedFrequency = Math.max(1, sketch.frequency(node.hash));
+            probation.put(node.account, node);
+        }
+
+        /**
+         * 受害者的权重：Sketch 中的频率会定期减半，等待校验的验证码在有效期内保留进入主区时的频率，
+         * 并且额外加上 {@link #PENDING_BONUS}，哈希冲突把只出现一次的候选者高估为 2 时也无法挤掉它
+         * （受害者一定未过期，已过期的验证码在此之前已被移除）
+         */
+        private int weight(Node victim) {
+            return Math.max(victim.admittedFrequency, sketch.frequency(victim.hash)) + PENDING_BONUS;
+        }
+
+        /**
+         * 从堆顶移除已过期的验证码，直到不再超出容量或堆顶未过期
+         */
+        private void purgeExpired(long now) {
+            while (!expiry.isEmpty() && size() > windowCapacity + mainCapacity) {
+                Node node = expiry.peek();
+                if (!node.removed && !node.isExpired(now)) {
+                    return;
+                }
+                expiry.poll();
+                if (!node.removed) {
+                    unlink(queueOf(node.account), node.account);
+                }
+            }
+        }
+
+        private void rebuildExpiry() {
+            PriorityQueue<Node> rebuilt = new PriorityQueue<>(Math.max(16, size()));
+            for (Node node : expiry) {
+                if (!node.removed) {
+                    rebuilt.add(node);
+                }
+            }
+            expiry = rebuilt;
+        }
+
+        private Node pollFirst(Map<String, Node> queue) {
+            Iterator<Node> iterator = queue.values().iterator();
+            Node eldest = iterator.next();
+            iterator.remove();
+            return eldest;
+        }
+    }
+
+    /**
+     * 验证码及其过期时间
+     */
+    private static final class Node implements Comparable<Node> {
+
+        private final String account;
+        private final int hash;
+        private final String code;
+        private final long expireAt;
+
+        /**
+         * 已从队列中移除，堆中的该节点失效
+         */
+        private boolean removed;
+
+        /**
+         * 进入主区时的访问频率
+         */
+        private int admittedFrequency;
+
+        private Node(String account, int hash, String code, long expireAt) {
+            this.account = account;
+            this.hash = hash;
+            this.code = code;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            return Long.compare(expireAt, other.expireAt);
+        }
+    }
+
+    /**
+     * 带门卫（doorkeeper）的 4 位计数器 Count-Min Sketch，估算账号最近的访问频率
+     * 账号第一次出现只记录在门卫的布隆过滤器中，再次出现才进入 Sketch，刷量产生的大量一次性账号不会占满计数器，
+     * 也就不会因哈希冲突互相抬高频率；频率为 Sketch 中的计数加上门卫中的 1。
+     * Sketch 每个 long 存放 16 个计数器，每个账号在 4 个位置计数，取最小值，只增加等于最小值的计数器（保守更新）；
+     * 累计增加的次数达到容量的 10 倍时所有计数器减半、门卫清空，让旧的访问逐渐失效
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int MAX_COUNT = 15;
+
+        private final long[] table;
+        private final int tableMask;
+        private final long[] doorkeeper;
+        private final int doorkeeperMask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            int size = Math.max(16, capacity);
+            this.table = new long[tableSizeFor(size)];
+            this.tableMask = table.length - 1;
+            this.sampleSize = 10 * size;
+            // 每次重置前最多记录 sampleSize 个账号，每个账号约 10 位
+            this.doorkeeper = new long[tableSizeFor(sampleSize) / 8];
+            this.doorkeeperMask = doorkeeper.length * 64 - 1;
+        }
+
+        private int frequency(int hash) {
+            return sketchFrequency(hash) + (doorkeeperContains(hash) ? 1 : 0);
+        }
+
+        private void increment(int hash) {
+            if (doorkeeperContains(hash)) {
+                incrementSketch(hash);
+            } else {
+                doorkeeperPut(hash);
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int sketchFrequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (long seed : SEEDS) {
+                long h = (hash + seed) * 0x9e3779b97f4a7c15L;
+                int shift = (int) (h >>> 28 & 15) << 2;
+                frequency = Math.min(frequency, (int) (table[(int) (h >>> 32) & tableMask] >>> shift & 15));
+            }
+            return frequency;
+        }
+
+        private void incrementSketch(int hash) {
+            int frequency = sketchFrequency(hash);
+            if (frequency >= MAX_COUNT) {
+                return;
+            }
+            for (long seed : SEEDS) {
+                long h = (hash + seed) * 0x9e3779b97f4a7c15L;
+                int index = (int) (h >>> 32) & tableMask;
+                int shift = (int) (h >>> 28 & 15) << 2;
+                if ((table[index] >>> shift & 15) == frequency) {
+                    table[index] += 1L << shift;
+                }
+            }
+        }
+
+        private boolean doorkeeperContains(int hash) {
+            long h = hash * 0x9e3779b97f4a7c15L;
+            int first = (int) h & doorkeeperMask;
+            int second = (int) (h >>> 32) & doorkeeperMask;
+            return (doorkeeper[first >>> 6] & 1L << first) != 0 && (doorkeeper[second >>> 6] & 1L << second) != 0;
+        }
+
+        private void doorkeeperPut(int hash) {
+            long h = hash * 0x9e3779b97f4a7c15L;
+            int first = (int) h & doorkeeperMask;
+            int second = (int) (h >>> 32) & doorkeeperMask;
+            doorkeeper[first >>> 6] |= 1L << first;
+            doorkeeper[second >>> 6] |= 1L << second;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = table[i] >>> 1 & RESET_MASK;
+            }
+            Arrays.fill(doorkeeper, 0L);
+            additions = 0;
+        }
+
+        private static int tableSizeFor(int n) {
+            return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+        }
+    }
+}
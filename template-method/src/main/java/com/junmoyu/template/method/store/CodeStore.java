@@ -0,0 +1,185 @@
+package com.junmoyu.template.method.store;
+
+import com.junmoyu.template.method.util.CodeMatcher;
+import com.junmoyu.template.method.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * 验证码存储接口
+ * 由 AbstractValidateCode 的 saveCode/getCode/removeCode 委托调用，实现类必须是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public interface CodeStore {
+
+    /**
+     * 保存验证码，同一账号重复保存时覆盖旧验证码
+     *
+     * @param account   账号
+     * @param code      验证码
+     * @param ttlMillis 有效期，单位毫秒
+     */
+    void save(String account, String code, long ttlMillis);
+
+    /**
+     * 批量保存验证码，默认逐个保存，支持批量写入的实现应重写此方法
+     *
+     * @param codes     账号与验证码
+     * @param ttlMillis 有效期，单位毫秒
+     */
+    default void saveAll(Map<String, String> codes, long ttlMillis) {
+        for (Map.Entry<String, String> entry : codes.entrySet()) {
+            save(entry.getKey(), entry.getValue(), ttlMillis);
+        }
+    }
+
+    /**
+     * 获取验证码
+     *
+     * @param account 账号
+     * @return 验证码，不存在或已过期时返回 null
+     */
+    String get(String account);
+
+    /**
+     * 移除验证码
+     *
+     * @param account 账号
+     */
+    void remove(String account);
+
+    /**
+     * 仅当账号当前的验证码为 code 时移除，检查与移除是一个原子操作
+     * 校验通过后用它消费验证码：同一验证码被并发校验时只有一次能移除成功，也不会误删校验期间重新生成的验证码
+     *
+     * @param account 账号
+     * @param code    期望的验证码，按原样比较
+     * @return true: 已移除；false: 验证码不存在、已过期或已被替换
+     */
+    boolean remove(String account, String code);
+
+    /**
+     * 移除验证码，账号可以是 {@link com.junmoyu.template.method.util.ByteSequence} 等非 String 的视图
+     * 默认转换为 String 后调用 {@link #remove(String)}，能按原始类型查找的实现应重写此方法以避免分配
+     *
+     * @param account 账号
+     */
+    default void remove(CharSequence account) {
+        remove(account.toString());
+    }
+
+    /**
+     * 移除验证码，账号为纯数字（如手机号）
+     *
+     * @param account 账号
+     */
+    default void remove(long account) {
+        remove(String.valueOf(account));
+    }
+
+    /**
+     * 校验验证码，匹配时移除（消费）验证码，同一验证码被并发校验时只有一次返回 MATCHED
+     * 忽略大小写，比较耗时与输入内容无关（恒定时间）
+     * 默认通过 {@link #get(String)} 获取、比较后再用 {@link #remove(String, String)} 原子地消费，
+     * 能按原始类型查找的实现应重写此方法以避免分配
+     *
+     * @param account 账号
+     * @param code    用户输入的验证码
+     * @return 校验结果，验证码在比较后被并发消费或重新生成时返回 MISSING
+     */
+    default Verification verifyAndRemove(CharSequence account, CharSequence code) {
+        String key = account.toString();
+        String expected = get(key);
+        if (StringUtils.isEmpty(expected)) {
+            return Verification.MISSING;
+        }
+        if (!CodeMatcher.equalsIgnoreCase(expected, code)) {
+            return Verification.MISMATCHED;
+        }
+        return remove(key, expected) ? Verification.MATCHED : Verification.MISSING;
+    }
+
+    /**
+     * 校验纯数字验证码，匹配时移除（消费）验证码，账号为纯数字（如手机号）
+     * 比较按数值进行，已保存的验证码 "012345" 与 12345 相等
+     *
+     * @param account 账号
+     * @param code    用户输入的验证码
+     * @return 校验结果，验证码在比较后被并发消费或重新生成时返回 MISSING
+     */
+    default Verification verifyAndRemove(long account, int code) {
+        String key = String.valueOf(account);
+        String expected = get(key);
+        if (StringUtils.isEmpty(expected)) {
+            return Verification.MISSING;
+        }
+        if (!CodeMatcher.equalsNumber(expected, code)) {
+            return Verification.MISMATCHED;
+        }
+        return remove(key, expected) ? Verification.MATCHED : Verification.MISSING;
+    }
+
+    /**
+     * 当前存储的验证码数量，可能包含尚未清理的过期验证码
+     *
+     * @return 数量
+     */
+    int size();
+
+    /**
+     * 遍历所有未过期的验证码，用于快照等后台任务
+     * 遍历是弱一致的：不会暂停并发的保存和移除，遍历期间发生的修改可能可见也可能不可见
+     *
+     * @param visitor 访问者
+     * @throws UnsupportedOperationException 存储不支持遍历时抛出，例如远程存储，可先通过 {@link #isIterable()} 判断
+     */
+    default void forEach(EntryVisitor visitor) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " 不支持遍历");
+    }
+
+    /**
+     * 是否支持 {@link #forEach(EntryVisitor)}，实现了遍历的存储需要重写为 true
+     *
+     * @return true: 支持遍历
+     */
+    default boolean isIterable() {
+        return false;
+    }
+
+    /**
+     * 校验结果
+     */
+    enum Verification {
+
+        /**
+         * 验证码匹配
+         */
+        MATCHED,
+
+        /**
+         * 验证码不匹配
+         */
+        MISMATCHED,
+
+        /**
+         * 验证码不存在或已过期
+         */
+        MISSING
+    }
+
+    /**
+     * 验证码访问者
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        /**
+         * @param account  账号
+         * @param code     验证码
+         * @param expireAt 过期时间，单位毫秒
+         */
+        void visit(String account, String code, long expireAt);
+    }
+}
@@ -0,0 +1,336 @@
+package com.junmoyu.template.method.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 验证码存储的快照 - 定期把任意 {@link CodeStore} 的内容写成紧凑的二进制文件，节点重启后从最新的快照恢复
+ * 写快照通过 {@link CodeStore#forEach(CodeStore.EntryVisitor)} 遍历，不会暂停保存和校验；
+ * 恢复时整个文件以内存映射的方式读入，校验通过后顺序扫描，已过期的记录直接跳过
+ * <p>
+ * 文件格式：
+ * <pre>
+ * | magic(4) | version(1) | createdAt(8) | 记录 ... | count(4) | crc32(8) |
+ * 记录：| expireAt(8) | accountLength(2) | account | codeLength(1) | code |
+ * </pre>
+ * 快照先写入临时文件，落盘后原子重命名，因此目录中只会出现完整的快照；只保留最近的几个快照
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class CodeStoreSnapshotter implements Closeable {
+
+    private static final int MAGIC = 0x56435331;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 4 + 1 + 8;
+    private static final int TRAILER_LENGTH = 4 + 8;
+    private static final int RECORD_HEADER_LENGTH = 8 + 2;
+
+    private static final String PREFIX = "codes-";
+    private static final String SUFFIX = ".snapshot";
+    private static final int DEFAULT_RETAINED = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 恢复时每个并行区块的记录数
+     */
+    private static final int CHUNK_RECORDS = 16 * 1024;
+
+    private final CodeStore store;
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param store     需要快照的存储，必须支持遍历
+     * @param directory 快照目录，不存在时自动创建
+     * @param interval  快照间隔，小于等于 0 时不定期执行，只能手动调用 {@link #snapshot()}
+     * @param unit      间隔单位
+     * @throws IllegalArgumentException 存储不支持遍历时抛出，例如远程存储或包含远程节点的分片存储
+     */
+    public CodeStoreSnapshotter(CodeStore store, Path directory, long interval, TimeUnit unit) {
+        if (store == null || !store.isIterable()) {
+            // 不支持遍历的存储每次快照都会失败，在创建时就拒绝，而不是在定时任务中反复报错
+            throw new IllegalArgumentException((store == null ? "null" : store.getClass().getSimpleName())
+                    + " 不支持遍历，无法写快照");
+        }
+        this.store = store;
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("快照目录创建失败：" + directory, e);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "code-store-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (interval > 0) {
+            this.scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, interval, interval, unit);
+        }
+    }
+
+    /**
+     * 立即写一次快照
+     *
+     * @return 快照文件
+     */
+    public synchronized Path snapshot() {
+        long createdAt = System.currentTimeMillis();
+        Path target = directory.resolve(PREFIX + createdAt + SUFFIX);
+        Path temp = directory.resolve(PREFIX + createdAt + SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SnapshotWriter writer = new SnapshotWriter(channel);
+            writer.writeHeader(createdAt);
+            store.forEach(writer);
+            writer.finish();
+            channel.force(true);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("快照写入失败：" + temp, e);
+        } catch (UncheckedIOException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            purgeOldSnapshots(directory, DEFAULT_RETAINED);
+        } catch (IOException e) {
+            throw new UncheckedIOException("快照重命名失败：" + target, e);
+        }
+        return target;
+    }
+
+    /**
+     * 停止定期快照，并在关闭前写最后一次快照
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        snapshot();
+    }
+
+    /**
+     * 从目录中最新的完整快照恢复验证码，最新的快照损坏时依次尝试更早的快照
+     *
+     * @param directory 快照目录
+     * @param target    恢复到的存储
+     * @return 恢复的验证码数量，没有可用快照时返回 0
+     */
+    public static int restore(Path directory, CodeStore target) {
+        List<Path> snapshots = listSnapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                return load(snapshots.get(i), target);
+            } catch (IOException | IllegalStateException e) {
+                System.err.println("快照不可用，尝试更早的快照：" + snapshots.get(i) + "，原因：" + e.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 整个文件映射到内存，先校验 CRC 再扫描，不完整或被篡改的快照不会写入存储
+     */
+    private static int load(Path snapshot, CodeStore target) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH + TRAILER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("快照长度无效");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int end = buffer.capacity() - 8;
+        int recordsEnd = end - 4;
+        if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            throw new IllegalStateException("快照格式不支持");
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.limit(end);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if (crc.getValue() != buffer.getLong(end)) {
+            throw new IllegalStateException("快照校验失败");
+        }
+
+        // 先只读取长度字段把记录划分成若干区块，再由多个线程并行解码并写入存储，存储本身是线程安全的
+        int count = buffer.getInt(recordsEnd);
+        List<int[]> chunks = new ArrayList<>();
+        int chunkStart = HEADER_LENGTH;
+        int position = HEADER_LENGTH;
+        for (int i = 0; i < count; i++) {
+            position = nextRecord(buffer, position);
+            if (position > recordsEnd) {
+                throw new IllegalStateException("快照记录越界");
+            }
+            if ((i + 1) % CHUNK_RECORDS == 0) {
+                chunks.add(new int[]{chunkStart, position});
+                chunkStart = position;
+            }
+        }
+        if (chunkStart < position) {
+            chunks.add(new int[]{chunkStart, position});
+        }
+        long now = System.currentTimeMillis();
+        return chunks.parallelStream().mapToInt(chunk -> load(buffer, chunk[0], chunk[1], now, target)).sum();
+    }
+
+    private static int load(ByteBuffer buffer, int start, int end, long now, CodeStore target) {
+        ByteBuffer view = buffer.duplicate();
+        int restored = 0;
+        for (int position = start; position < end; position = nextRecord(buffer, position)) {
+            long expireAt = buffer.getLong(position);
+            if (expireAt > now) {
+                int accountLength = buffer.getShort(position + 8) & 0xFFFF;
+                int codeOffset = position + RECORD_HEADER_LENGTH + accountLength;
+                target.save(decode(view, position + RECORD_HEADER_LENGTH, accountLength),
+                        decode(view, codeOffset + 1, buffer.get(codeOffset) & 0xFF), expireAt - now);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private static int nextRecord(ByteBuffer buffer, int position) {
+        int codeOffset = position + RECORD_HEADER_LENGTH + (buffer.getShort(position + 8) & 0xFFFF);
+        return codeOffset + 1 + (buffer.get(codeOffset) & 0xFF);
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            System.err.println("验证码定期快照失败：" + e.getMessage());
+        }
+    }
+
+    private static List<Path> listSnapshots(Path directory) {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("快照目录读取失败：" + directory, e);
+        }
+        // 文件名中的时间戳位数相同，按名称排序即按时间排序
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private static void purgeOldSnapshots(Path directory, int retained) throws IOException {
+        List<Path> snapshots = listSnapshots(directory);
+        for (int i = 0; i < snapshots.size() - retained; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 临时文件删除失败不影响下一次快照
+        }
+    }
+
+    private static String decode(ByteBuffer view, int offset, int length) {
+        byte[] bytes = new byte[length];
+        view.position(offset);
+        view.get(bytes);
+        // 账号和验证码绝大多数是 ASCII，按单字节解码可以省去 UTF-8 解码的开销
+        for (byte b : bytes) {
+            if (b < 0) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 把遍历到的验证码写入缓冲区，缓冲区满时整块写入文件，同时累计 CRC
+     */
+    private static final class SnapshotWriter implements CodeStore.EntryVisitor {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+        private int count;
+
+        private SnapshotWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void writeHeader(long createdAt) {
+            buffer.putInt(MAGIC).put(VERSION).putLong(createdAt);
+        }
+
+        @Override
+        public void visit(String account, String code, long expireAt) {
+            byte[] accountBytes = account.getBytes(StandardCharsets.UTF_8);
+            byte[] codeBytes = code.getBytes(StandardCharsets.UTF_8);
+            int length = RECORD_HEADER_LENGTH + accountBytes.length + 1 + codeBytes.length;
+            if (accountBytes.length > 0xFFFF || codeBytes.length > 0xFF || length > BUFFER_SIZE) {
+                // 超长的账号或验证码不会出现在正常流程中，放不进一个缓冲区的记录也跳过，而不是让整个快照失败
+                return;
+            }
+            if (buffer.remaining() < length) {
+                drain();
+            }
+            buffer.putLong(expireAt).putShort((short) accountBytes.length).put(accountBytes)
+                    .put((byte) codeBytes.length).put(codeBytes);
+            count++;
+        }
+
+        /**
+         * 写入记录数和 CRC，CRC 覆盖文件中除自身以外的所有内容
+         */
+        private void finish() {
+            if (buffer.remaining() < 4) {
+                drain();
+            }
+            buffer.putInt(count);
+            drain();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            write();
+        }
+
+        private void drain() {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            write();
+        }
+
+        private void write() {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("快照写入失败", e);
+            }
+            buffer.clear();
+        }
+    }
+}
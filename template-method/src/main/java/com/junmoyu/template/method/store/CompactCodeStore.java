@@ -0,0 +1,514 @@
+package com.junmoyu.template.method.store;
+
+/**
+ * 紧凑型验证码存储 - 线程安全，支持过期
+ * 手机号账号（11 位数字）按 long 存储，纯数字验证码与过期时间打包成一个 long，
+ * 存放在开放寻址（线性探测）的原始类型数组中，每个槽位仅占 16 字节，且不产生任何包装对象
+ * 非手机号账号（如邮箱）或非纯数字验证码交给后备存储处理
+ * <p>
+ * value 的打包格式：
+ * <pre>
+ * | 63 ... 32            | 31 ... 28 | 27 ... 0  |
+ * | 过期时间（相对秒数）   | 验证码长度 | 验证码数值 |
+ * </pre>
+ * 过期时间精度为秒，且向上取整
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class CompactCodeStore implements CodeStore {
+
+    /**
+     * 纯数字验证码的最大长度，数值需小于 2^28
+     */
+    private static final int MAX_CODE_LENGTH = 8;
+
+    private static final int CODE_BITS = 28;
+    private static final long CODE_MASK = (1L << CODE_BITS) - 1;
+    private static final long LENGTH_MASK = 0xFL;
+
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * 空槽位标记，手机号以 1 开头，不可能为 0
+     */
+    private static final long EMPTY = 0L;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final CodeStore fallback;
+
+    /**
+     * 过期时间的基准，value 中保存的是相对于该时间的秒数
+     */
+    private final long baseMillis = System.currentTimeMillis();
+
+    public CompactCodeStore() {
+        this(DEFAULT_INITIAL_CAPACITY, new ConcurrentCodeStore());
+    }
+
+    /**
+     * @param initialCapacity 预计的验证码数量，用于预分配数组，减少扩容
+     * @param fallback        后备存储，处理非手机号账号或非纯数字验证码
+     */
+    public CompactCodeStore(int initialCapacity, CodeStore fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("fallback 不能为空");
+        }
+        this.fallback = fallback;
+        this.segments = new Segment[DEFAULT_SEGMENTS];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(DEFAULT_SEGMENTS);
+        int segmentCapacity = tableSizeFor((int) (Math.max(initialCapacity, 16) / DEFAULT_SEGMENTS / LOAD_FACTOR) + 1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        long key = parseMobile(account);
+        int length = code == null ? 0 : code.length();
+        int value = parseNumber(code);
+        if (key == EMPTY || value < 0) {
+            if (key != EMPTY) {
+                // 同一账号可能此前以纯数字验证码保存在数组中
+                long hash = mix(key);
+                segmentFor(hash).remove(key, hash);
+            }
+            fallback.save(account, code, ttlMillis);
+            return;
+        }
+        // 同一账号可能此前以非数字验证码保存在后备存储中
+        fallback.remove(account);
+        long expireSeconds = (System.currentTimeMillis() + ttlMillis - baseMillis + 999) / 1000;
+        long packed = expireSeconds << 32 | (long) length << CODE_BITS | value;
+        long hash = mix(key);
+        segmentFor(hash).put(key, hash, packed, nowSeconds());
+    }
+
+    @Override
+    public String get(String account) {
+        long key = parseMobile(account);
+        if (key == EMPTY) {
+            return fallback.get(account);
+        }
+        long hash = mix(key);
+        long packed = segmentFor(hash).get(key, hash, nowSeconds());
+        if (packed == EMPTY) {
+            return fallback.get(account);
+        }
+        return format((int) (packed & CODE_MASK), (int) (packed >>> CODE_BITS & LENGTH_MASK));
+    }
+
+    @Override
+    public void remove(String account) {
+        long key = parseMobile(account);
+        if (key != EMPTY) {
+            long hash = mix(key);
+            segmentFor(hash).remove(key, hash);
+        }
+        fallback.remove(account);
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        long key = parseMobile(account);
+        if (key != EMPTY) {
+            long hash = mix(key);
+            Verification verification = segmentFor(hash).verifyAndRemove(key, hash, code, nowSeconds());
+            if (verification != null) {
+                return verification == Verification.MATCHED;
+            }
+        }
+        return fallback.remove(account, code);
+    }
+
+    /**
+     * 手机号账号在数组中找到时不再访问后备存储，整个过程不分配内存
+     */
+    @Override
+    public void remove(CharSequence account) {
+        long key = parseMobile(account);
+        if (key != EMPTY) {
+            long hash = mix(key);
+            if (segmentFor(hash).remove(key, hash)) {
+                return;
+            }
+        }
+        fallback.remove(account);
+    }
+
+    @Override
+    public void remove(long account) {
+        if (isMobile(account)) {
+            long hash = mix(account);
+            if (segmentFor(hash).remove(account, hash)) {
+                return;
+            }
+        }
+        fallback.remove(account);
+    }
+
+    /**
+     * 在分段锁内直接与打包的验证码数值逐位比较并移除，不还原为 String
+     */
+    @Override
+    public Verification verifyAndRemove(CharSequence account, CharSequence code) {
+        long key = parseMobile(account);
+        if (key == EMPTY) {
+            return fallback.verifyAndRemove(account, code);
+        }
+        long hash = mix(key);
+        Verification verification = segmentFor(hash).verifyAndRemove(key, hash, code, nowSeconds());
+        return verification != null ? verification : fallback.verifyAndRemove(account, code);
+    }
+
+    @Override
+    public Verification verifyAndRemove(long account, int code) {
+        if (!isMobile(account)) {
+            return fallback.verifyAndRemove(account, code);
+        }
+        long hash = mix(account);
+        Verification verification = segmentFor(hash).verifyAndRemove(account, hash, code, nowSeconds());
+        return verification != null ? verification : fallback.verifyAndRemove(account, code);
+    }
+
+    @Override
+    public int size() {
+        int size = fallback.size();
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 逐个分段在锁内复制数组（写时复制的快照），再在锁外遍历
+     */
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        long now = nowSeconds();
+        for (Segment segment : segments) {
+            long[][] copy = segment.copy();
+            long[] keys = copy[0];
+            long[] values = copy[1];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && !isExpired(values[i], now)) {
+                    long packed = values[i];
+                    visitor.visit(String.valueOf(keys[i]),
+                            format((int) (packed & CODE_MASK), (int) (packed >>> CODE_BITS & LENGTH_MASK)),
+                            baseMillis + (packed >>> 32) * 1000);
+                }
+            }
+        }
+        fallback.forEach(visitor);
+    }
+
+    @Override
+    public boolean isIterable() {
+        return fallback.isIterable();
+    }
+
+    /**
+     * 清理所有已过期的验证码，逐个分段加锁，不会阻塞整个存储
+     */
+    public void purgeExpired() {
+        long now = nowSeconds();
+        for (Segment segment : segments) {
+            segment.purgeExpired(now);
+        }
+    }
+
+    private long nowSeconds() {
+        return (System.currentTimeMillis() - baseMillis) / 1000;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> segmentShift)];
+    }
+
+    /**
+     * 手机号转 long，规则与 RegexUtils.REGEX_MOBILE 一致：1 开头的 11 位数字
+     *
+     * @return 手机号数值，不是手机号时返回 0
+     */
+    private static long parseMobile(CharSequence account) {
+        if (account == null || account.length() != 11 || account.charAt(0) != '1') {
+            return EMPTY;
+        }
+        long value = 0;
+        for (int i = 0; i < 11; i++) {
+            char c = account.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isMobile(long account) {
+        return account >= 10000000000L && account <= 19999999999L;
+    }
+
+    /**
+     * 恒定时间比较：总是比较完已保存验证码的每一位，从低位到高位依次取出数字
+     */
+    private static boolean matches(long packed, CharSequence code) {
+        if (code == null) {
+            return false;
+        }
+        int value = (int) (packed & CODE_MASK);
+        int length = (int) (packed >>> CODE_BITS & LENGTH_MASK);
+        int actualLength = code.length();
+        int diff = length ^ actualLength;
+        for (int i = length - 1; i >= 0; i--) {
+            int c = i < actualLength ? code.charAt(i) : 0;
+            diff |= c ^ ('0' + value % 10);
+            value /= 10;
+        }
+        return diff == 0;
+    }
+
+    /**
+     * 纯数字验证码转 int
+     *
+     * @return 验证码数值，不是纯数字或超长时返回 -1
+     */
+    private static int parseNumber(CharSequence code) {
+        if (code == null || code.length() == 0 || code.length() > MAX_CODE_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 按原长度补齐前导 0
+     */
+    private static String format(int value, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static long mix(long key) {
+        // MurmurHash3 fmix64
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return size <= 0 ? 1 << 30 : size;
+    }
+
+    private static boolean isExpired(long packed, long nowSeconds) {
+        return (packed >>> 32) <= nowSeconds;
+    }
+
+    /**
+     * 分段，每段独立加锁的线性探测哈希表
+     */
+    private static final class Segment {
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+        private int threshold;
+
+        private Segment(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        private synchronized void put(long key, long hash, long packed, long nowSeconds) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            int reusable = -1;
+            while (keys[index] != EMPTY) {
+                if (keys[index] == key) {
+                    values[index] = packed;
+                    return;
+                }
+                // 记录探测路径上第一个已过期的槽位，确认账号不存在后复用
+                if (reusable < 0 && isExpired(values[index], nowSeconds)) {
+                    reusable = index;
+                }
+                index = (index + 1) & mask;
+            }
+            if (reusable >= 0) {
+                keys[reusable] = key;
+                values[reusable] = packed;
+                return;
+            }
+            keys[index] = key;
+            values[index] = packed;
+            if (++size > threshold) {
+                rehash(nowSeconds);
+            }
+        }
+
+        private synchronized long get(long key, long hash, long nowSeconds) {
+            int index = indexOf(key, hash, nowSeconds);
+            return index < 0 ? EMPTY : values[index];
+        }
+
+        private synchronized boolean remove(long key, long hash) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (keys[index] != EMPTY) {
+                if (keys[index] == key) {
+                    delete(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        /**
+         * 在锁内比较，匹配时移除
+         *
+         * @return 账号不存在或已过期时返回 null
+         */
+        private synchronized Verification verifyAndRemove(long key, long hash, CharSequence code, long nowSeconds) {
+            int index = indexOf(key, hash, nowSeconds);
+            if (index < 0) {
+                return null;
+            }
+            if (!matches(values[index], code)) {
+                return Verification.MISMATCHED;
+            }
+            delete(index);
+            return Verification.MATCHED;
+        }
+
+        private synchronized Verification verifyAndRemove(long key, long hash, int code, long nowSeconds) {
+            int index = indexOf(key, hash, nowSeconds);
+            if (index < 0) {
+                return null;
+            }
+            if (((values[index] & CODE_MASK) ^ code) != 0) {
+                return Verification.MISMATCHED;
+            }
+            delete(index);
+            return Verification.MATCHED;
+        }
+
+        /**
+         * 查找账号所在的槽位，已过期时顺便删除
+         *
+         * @return 槽位下标，不存在或已过期时返回 -1
+         */
+        private int indexOf(long key, long hash, long nowSeconds) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (keys[index] != EMPTY) {
+                if (keys[index] == key) {
+                    if (isExpired(values[index], nowSeconds)) {
+                        delete(index);
+                        return -1;
+                    }
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private synchronized long[][] copy() {
+            return new long[][]{keys.clone(), values.clone()};
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized void purgeExpired(long nowSeconds) {
+            int index = 0;
+            while (index < keys.length) {
+                // 删除后后续元素可能回移到当前位置，需要重新检查当前槽位
+                if (keys[index] != EMPTY && isExpired(values[index], nowSeconds)) {
+                    delete(index);
+                } else {
+                    index++;
+                }
+            }
+        }
+
+        /**
+         * 向后移位删除，保证探测链不断裂，无需墓碑标记
+         */
+        private void delete(int index) {
+            int mask = keys.length - 1;
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int ideal = (int) mix(keys[next]) & mask;
+                // ideal 不在 (hole, next] 区间内时，可以把 next 移到 hole
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            values[hole] = EMPTY;
+            size--;
+        }
+
+        /**
+         * 扩容并丢弃已过期的验证码
+         */
+        private void rehash(long nowSeconds) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && !isExpired(oldValues[i], nowSeconds)) {
+                    live++;
+                }
+            }
+            // 过期数据足够多时只清理不扩容
+            int capacity = live > oldKeys.length / 2 ? oldKeys.length << 1 : oldKeys.length;
+            allocate(capacity);
+            size = 0;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY || isExpired(oldValues[i], nowSeconds)) {
+                    continue;
+                }
+                int index = (int) mix(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                size++;
+            }
+        }
+    }
+}
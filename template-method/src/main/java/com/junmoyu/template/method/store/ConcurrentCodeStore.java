@@ -0,0 +1,146 @@
+package com.junmoyu.template.method.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 并发验证码存储 - 线程安全，支持过期
+ * 基于 ConcurrentHashMap 的分段锁（读操作无锁），过期清理由哈希时间轮驱动，无需全量扫描
+ * 读取时同样会检查过期时间，所以即使时间轮还未推进到，也不会返回已过期的验证码
+ * 验证码被覆盖或移除时取消其定时任务，重复发送验证码不会在时间轮中堆积定时任务
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ConcurrentCodeStore implements CodeStore {
+
+    /**
+     * 默认 tick 时长：100 毫秒
+     */
+    private static final long DEFAULT_TICK_MILLIS = 100;
+
+    /**
+     * 默认槽位数量：一圈 512 * 100ms ≈ 51 秒
+     */
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final ConcurrentMap<String, Entry> codeMap = new ConcurrentHashMap<>();
+    private final HashedWheelTimer timer;
+
+    public ConcurrentCodeStore() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param tickMillis 时间轮 tick 时长，即过期清理的精度，单位毫秒
+     * @param wheelSize  时间轮槽位数量
+     */
+    public ConcurrentCodeStore(long tickMillis, int wheelSize) {
+        this.timer = new HashedWheelTimer(tickMillis, wheelSize);
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        Entry entry = new Entry(code, System.currentTimeMillis() + ttlMillis);
+        // 只移除本次保存的 entry，避免误删过期前重新生成的验证码
+        entry.timeout = timer.schedule(() -> codeMap.remove(account, entry), ttlMillis);
+        Entry previous = codeMap.put(account, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    @Override
+    public String get(String account) {
+        Entry entry = codeMap.get(account);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (codeMap.remove(account, entry)) {
+                entry.cancel();
+            }
+            return null;
+        }
+        return entry.code;
+    }
+
+    @Override
+    public void remove(String account) {
+        Entry entry = codeMap.remove(account);
+        if (entry != null) {
+            entry.cancel();
+        }
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        Entry entry = codeMap.get(account);
+        if (entry == null || entry.isExpired(System.currentTimeMillis()) || !entry.code.equals(code)) {
+            return false;
+        }
+        // 按引用移除，期间验证码被其他线程消费或重新生成时移除失败
+        if (codeMap.remove(account, entry)) {
+            entry.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return codeMap.size();
+    }
+
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Entry> e : codeMap.entrySet()) {
+            Entry entry = e.getValue();
+            if (!entry.isExpired(now)) {
+                visitor.visit(e.getKey(), entry.code, entry.expireAt);
+            }
+        }
+    }
+
+    @Override
+    public boolean isIterable() {
+        return true;
+    }
+
+    /**
+     * 停止过期清理线程
+     */
+    public void shutdown() {
+        timer.stop();
+    }
+
+    /**
+     * 验证码及其过期时间
+     * 不重写 equals，ConcurrentMap#remove(key, value) 按引用比较
+     */
+    private static final class Entry {
+
+        private final String code;
+        private final long expireAt;
+
+        /**
+         * 过期清理的定时任务，在放入 codeMap 之前赋值
+         */
+        private HashedWheelTimer.Timeout timeout;
+
+        private Entry(String code, long expireAt) {
+            this.code = code;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+
+        private void cancel() {
+            timeout.cancel();
+        }
+    }
+}
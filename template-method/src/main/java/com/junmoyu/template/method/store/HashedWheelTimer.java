@@ -0,0 +1,159 @@
+package com.junmoyu.template.method.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 哈希时间轮
+ * 到期任务按 tick 散列到环形槽位中，每个 tick 只处理当前槽位，避免全量扫描
+ * 槽位只由工作线程访问，新任务先进入无锁队列，再由工作线程转移到槽位
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class HashedWheelTimer {
+
+    /**
+     * 每个 tick 最多转移的任务数，防止新任务过多时工作线程无法推进
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Timeout>[] wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickMillis 每个 tick 的时长，单位毫秒
+     * @param wheelSize  槽位数量，会向上取整为 2 的幂
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashedWheelTimer(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis 和 wheelSize 必须大于 0");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.startTime = System.currentTimeMillis();
+        this.worker = new Thread(this::run, "hashed-wheel-timer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 延迟执行任务
+     *
+     * @param task        任务
+     * @param delayMillis 延迟时间，单位毫秒
+     * @return 可取消的定时句柄
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        if (!running) {
+            throw new IllegalStateException("时间轮已停止");
+        }
+        Timeout timeout = new Timeout(task, System.currentTimeMillis() - startTime + Math.max(delayMillis, 0));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 停止时间轮，未到期的任务不再执行
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = (tick + 1) * tickMillis;
+            long sleepMillis = deadline - (System.currentTimeMillis() - startTime);
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferPendingTimeouts(tick);
+            expireTimeouts(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts(long currentTick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.cancelled) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickMillis;
+            timeout.remainingRounds = (calculated - currentTick) / wheel.length;
+            // 已经过期的任务放到当前槽位，本次 tick 立即执行
+            long ticks = Math.max(calculated, currentTick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket, long deadline) {
+        int survivors = 0;
+        for (int i = 0, size = bucket.size(); i < size; i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    // 单个任务异常不能影响时间轮运转
+                    System.err.println("时间轮任务执行异常：" + e);
+                }
+                continue;
+            }
+            timeout.remainingRounds--;
+            bucket.set(survivors++, timeout);
+        }
+        bucket.subList(survivors, bucket.size()).clear();
+    }
+
+    /**
+     * 定时句柄
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务，已取消的任务会在下一次经过槽位时被丢弃
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
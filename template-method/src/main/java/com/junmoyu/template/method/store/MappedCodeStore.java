@@ -0,0 +1,360 @@
+package com.junmoyu.template.method.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 持久化验证码存储 - 线程安全，支持过期
+ * 每次保存、移除都以追加的方式写入内存映射的日志文件，内存中只保留一份索引用于读取
+ * 进程重启后顺序扫描日志重建索引，已过期的记录直接跳过，节点重启不会让正在登录的用户重新获取验证码
+ * 日志中的无效记录（被覆盖、被移除、已过期）会通过定期压缩清理
+ * <p>
+ * 记录格式：
+ * <pre>
+ * | type(1) | expireAt(8) | accountLength(2) | account | codeLength(1) | code |
+ * </pre>
+ * type 最后写入，扫描时遇到 type 为 0 即认为日志结束，写了一半的记录不会被读取
+ * <p>
+ * 注意：数据写入映射内存即可在进程崩溃后保留，但操作系统崩溃时需要依赖 {@link #flush()} 落盘
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class MappedCodeStore implements CodeStore, Closeable {
+
+    private static final byte TYPE_SAVE = 1;
+    private static final byte TYPE_REMOVE = 2;
+
+    /**
+     * 记录头部长度：type + expireAt + accountLength
+     */
+    private static final int HEADER_LENGTH = 1 + 8 + 2;
+
+    private static final int DEFAULT_FILE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 日志中无效记录超过该比例时才执行定期压缩
+     */
+    private static final double COMPACT_GARBAGE_RATIO = 0.5;
+
+    private final Path path;
+    private final ConcurrentMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService compactScheduler;
+
+    /**
+     * 以下字段只在持有 this 锁时访问
+     */
+    private MappedByteBuffer buffer;
+    private long recordCount;
+
+    /**
+     * 使用默认的 64MB 初始文件大小，每分钟检查一次是否需要压缩
+     *
+     * @param path 日志文件路径
+     */
+    public MappedCodeStore(String path) {
+        this(Paths.get(path), DEFAULT_FILE_SIZE, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param path            日志文件路径，文件存在时从中恢复验证码
+     * @param initialFileSize 日志文件初始大小，写满时先压缩，仍不够再扩容
+     * @param compactInterval 压缩检查间隔
+     * @param unit            间隔单位
+     */
+    public MappedCodeStore(Path path, int initialFileSize, long compactInterval, TimeUnit unit) {
+        this.path = path;
+        try {
+            long fileSize = Files.exists(path) ? Math.max(Files.size(path), initialFileSize) : initialFileSize;
+            this.buffer = map(path, fileSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("日志文件映射失败：" + path, e);
+        }
+        recover();
+        this.compactScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mapped-code-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compactScheduler.scheduleWithFixedDelay(this::compactIfNecessary, compactInterval, compactInterval, unit);
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        long expireAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (this) {
+            append(TYPE_SAVE, expireAt, account, code);
+            index.put(account, new Entry(code, expireAt));
+        }
+    }
+
+    @Override
+    public void saveAll(Map<String, String> codes, long ttlMillis) {
+        long expireAt = System.currentTimeMillis() + ttlMillis;
+        // 整批只加一次锁，连续追加到日志
+        synchronized (this) {
+            for (Map.Entry<String, String> e : codes.entrySet()) {
+                append(TYPE_SAVE, expireAt, e.getKey(), e.getValue());
+                index.put(e.getKey(), new Entry(e.getValue(), expireAt));
+            }
+        }
+    }
+
+    @Override
+    public String get(String account) {
+        Entry entry = index.get(account);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            // 过期记录无需写日志，重启恢复时会被跳过
+            index.remove(account, entry);
+            return null;
+        }
+        return entry.code;
+    }
+
+    @Override
+    public void remove(String account) {
+        synchronized (this) {
+            if (index.remove(account) != null) {
+                append(TYPE_REMOVE, 0L, account, "");
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        synchronized (this) {
+            Entry entry = index.get(account);
+            if (entry == null || entry.isExpired(System.currentTimeMillis()) || !entry.code.equals(code)
+                    || !index.remove(account, entry)) {
+                return false;
+            }
+            append(TYPE_REMOVE, 0L, account, "");
+            return true;
+        }
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Entry> e : index.entrySet()) {
+            Entry entry = e.getValue();
+            if (!entry.isExpired(now)) {
+                visitor.visit(e.getKey(), entry.code, entry.expireAt);
+            }
+        }
+    }
+
+    @Override
+    public boolean isIterable() {
+        return true;
+    }
+
+    /**
+     * 将映射内存中的数据强制刷到磁盘
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    /**
+     * 压缩日志：只保留未过期的验证码，写入临时文件后原子替换
+     */
+    public synchronized void compact() {
+        long now = System.currentTimeMillis();
+        Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        int required = 1;
+        for (Map.Entry<String, Entry> e : index.entrySet()) {
+            required += recordLength(encode(e.getKey()), encode(e.getValue().code));
+        }
+        try {
+            Files.deleteIfExists(compactPath);
+            MappedByteBuffer compacted = map(compactPath, Math.max(buffer.capacity(), required));
+            long count = 0;
+            for (Map.Entry<String, Entry> e : index.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.isExpired(now)) {
+                    index.remove(e.getKey(), entry);
+                    continue;
+                }
+                write(compacted, TYPE_SAVE, entry.expireAt, encode(e.getKey()), encode(entry.code));
+                count++;
+            }
+            compacted.force();
+            Files.move(compactPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            buffer = compacted;
+            recordCount = count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("日志压缩失败：" + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        compactScheduler.shutdownNow();
+        buffer.force();
+    }
+
+    private synchronized void compactIfNecessary() {
+        if (recordCount > 0 && recordCount - index.size() > recordCount * COMPACT_GARBAGE_RATIO) {
+            try {
+                compact();
+            } catch (UncheckedIOException e) {
+                System.err.println("验证码日志定期压缩失败：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 顺序扫描日志重建索引，并把写入位置定位到日志末尾
+     */
+    private void recover() {
+        long now = System.currentTimeMillis();
+        MappedByteBuffer log = buffer;
+        // 独立的视图用于批量读取账号和验证码，不影响日志的写入位置
+        ByteBuffer view = log.duplicate();
+        int position = 0;
+        while (log.capacity() - position >= HEADER_LENGTH) {
+            byte type = log.get(position);
+            if (type != TYPE_SAVE && type != TYPE_REMOVE) {
+                break;
+            }
+            long expireAt = log.getLong(position + 1);
+            int accountLength = log.getShort(position + 9);
+            int codeOffset = position + HEADER_LENGTH + accountLength;
+            if (accountLength < 0 || codeOffset >= log.capacity()) {
+                break;
+            }
+            int codeLength = log.get(codeOffset) & 0xFF;
+            int next = codeOffset + 1 + codeLength;
+            if (next > log.capacity()) {
+                break;
+            }
+            String account = decode(view, position + HEADER_LENGTH, accountLength);
+            if (type == TYPE_SAVE && expireAt > now) {
+                index.put(account, new Entry(decode(view, codeOffset + 1, codeLength), expireAt));
+            } else {
+                index.remove(account);
+            }
+            recordCount++;
+            position = next;
+        }
+        log.position(position);
+    }
+
+    private void append(byte type, long expireAt, String account, String code) {
+        byte[] accountBytes = encode(account);
+        byte[] codeBytes = encode(code);
+        if (accountBytes.length > Short.MAX_VALUE || codeBytes.length > 0xFF) {
+            throw new IllegalArgumentException("账号或验证码过长");
+        }
+        // 预留 1 字节作为日志结束标记
+        int length = recordLength(accountBytes, codeBytes);
+        if (buffer.remaining() < length + 1) {
+            compact();
+            if (buffer.remaining() < length + 1) {
+                grow(length + 1);
+            }
+        }
+        write(buffer, type, expireAt, accountBytes, codeBytes);
+        recordCount++;
+    }
+
+    /**
+     * 先写记录内容，最后写入 type，保证崩溃时不会读到不完整的记录
+     */
+    private static void write(MappedByteBuffer log, byte type, long expireAt, byte[] account, byte[] code) {
+        int start = log.position();
+        log.position(start + 1);
+        log.putLong(expireAt);
+        log.putShort((short) account.length);
+        log.put(account);
+        log.put((byte) code.length);
+        log.put(code);
+        log.put(start, type);
+    }
+
+    private void grow(int required) {
+        long newSize = Math.max((long) buffer.capacity() * 2, (long) buffer.position() + required);
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("验证码日志文件超出 2GB 上限");
+        }
+        try {
+            int position = buffer.position();
+            buffer.force();
+            buffer = map(path, newSize);
+            buffer.position(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("日志文件扩容失败：" + path, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int recordLength(byte[] account, byte[] code) {
+        return HEADER_LENGTH + account.length + 1 + code.length;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(ByteBuffer view, int offset, int length) {
+        byte[] bytes = new byte[length];
+        view.position(offset);
+        view.get(bytes);
+        // 账号和验证码绝大多数是 ASCII，按单字节解码可以省去 UTF-8 解码的开销
+        for (byte b : bytes) {
+            if (b < 0) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 验证码及其过期时间
+     */
+    private static final class Entry {
+
+        private final String code;
+        private final long expireAt;
+
+        private Entry(String code, long expireAt) {
+            this.code = code;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+}
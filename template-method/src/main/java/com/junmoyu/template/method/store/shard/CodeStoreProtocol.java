@@ -0,0 +1,77 @@
+package com.junmoyu.template.method.store.shard;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 验证码存储节点之间的二进制协议
+ * 请求和响应使用相同的帧格式，通过 requestId 对应，客户端可以不等响应连续发送多个请求（流水线）
+ * <pre>
+ * | bodyLength(4) | requestId(8) | op 或 status(1) | payload |
+ * </pre>
+ * 请求 payload：
+ * <ul>
+ *     <li>SAVE：account、code、ttlMillis(8)</li>
+ *     <li>GET / REMOVE：account</li>
+ *     <li>REMOVE_IF：account、code，仅当验证码一致时移除，未移除时响应 NOT_FOUND</li>
+ *     <li>SIZE：无</li>
+ * </ul>
+ * 响应 payload：GET 成功时为 code，SIZE 为 size(4)，ERROR 时为错误信息，其余为空
+ * 字符串均为 length(2) + UTF-8 字节
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+final class CodeStoreProtocol {
+
+    static final byte OP_SAVE = 1;
+    static final byte OP_GET = 2;
+    static final byte OP_REMOVE = 3;
+    static final byte OP_SIZE = 4;
+    static final byte OP_REMOVE_IF = 5;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_NOT_FOUND = 1;
+    static final byte STATUS_ERROR = 2;
+
+    /**
+     * 帧头长度：bodyLength
+     */
+    static final int LENGTH_FIELD = 4;
+
+    /**
+     * 帧体固定部分长度：requestId + op/status
+     */
+    static final int BODY_HEADER = 8 + 1;
+
+    /**
+     * 单帧最大长度，超出时认为数据已损坏
+     */
+    static final int MAX_FRAME = 64 * 1024;
+
+    private CodeStoreProtocol() {
+    }
+
+    static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("字符串过长");
+        }
+        return bytes;
+    }
+
+    static int stringLength(byte[] bytes) {
+        return 2 + bytes.length;
+    }
+
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
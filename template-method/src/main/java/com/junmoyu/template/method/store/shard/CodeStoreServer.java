@@ -0,0 +1,265 @@
+package com.junmoyu.template.method.store.shard;
+
+import com.junmoyu.template.method.store.CodeStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import static com.junmoyu.template.method.store.shard.CodeStoreProtocol.*;
+
+/**
+ * 验证码存储节点服务端
+ * 单个 Selector 线程处理所有连接，读到的请求帧按顺序直接在本地存储上执行，
+ * 一次读取中的多个请求，其响应会合并到同一次写出
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class CodeStoreServer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单个连接待写出响应的上限，超过后暂停读取该连接，写出缓冲区最大为该值加一个最大帧
+     */
+    private static final int OUT_HIGH_WATER = 1024 * 1024;
+
+    private final CodeStore store;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread eventLoop;
+    private volatile boolean running = true;
+
+    /**
+     * 创建并启动服务端
+     *
+     * @param store   本节点的存储
+     * @param address 监听地址，端口为 0 时随机分配
+     * @throws IOException 监听失败时抛出
+     */
+    public CodeStoreServer(CodeStore store, InetSocketAddress address) throws IOException {
+        this.store = store;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.eventLoop = new Thread(this::run, "code-store-server-" + getAddress().getPort());
+        eventLoop.setDaemon(true);
+        eventLoop.start();
+    }
+
+    /**
+     * 实际监听的地址
+     *
+     * @return 地址
+     */
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            eventLoop.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    handle(key);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("验证码存储节点异常：" + e);
+                }
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            SocketChannel channel = serverChannel.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            }
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush(key);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 单个连接出错只关闭该连接
+            key.cancel();
+            connection.channel.close();
+        }
+    }
+
+    /**
+     * 单个客户端连接的读写缓冲区
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(LENGTH_FIELD + MAX_FRAME);
+        private ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * 待写出的响应超过上限后为 true，此时读缓冲区中剩余的请求暂不执行，也不再从连接读取
+         */
+        private boolean stalled;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read(SelectionKey key) throws IOException {
+            if (channel.read(in) < 0) {
+                key.cancel();
+                channel.close();
+                return;
+            }
+            process();
+            flush(key);
+        }
+
+        /**
+         * 执行读缓冲区中完整的请求帧，待写出的响应超过上限时暂停
+         */
+        private void process() throws IOException {
+            in.flip();
+            while (out.position() < OUT_HIGH_WATER && in.remaining() >= LENGTH_FIELD) {
+                int length = in.getInt(in.position());
+                if (length < BODY_HEADER || length > MAX_FRAME) {
+                    throw new IOException("非法的帧长度：" + length);
+                }
+                if (in.remaining() < LENGTH_FIELD + length) {
+                    break;
+                }
+                int frameEnd = in.position() + LENGTH_FIELD + length;
+                int limit = in.limit();
+                // 解析限制在本帧之内，无论请求是否合法，执行后都从帧尾继续，不会读到下一帧或把帧尾当作新帧
+                in.position(in.position() + LENGTH_FIELD).limit(frameEnd);
+                try {
+                    execute();
+                } finally {
+                    in.limit(limit).position(frameEnd);
+                }
+            }
+            in.compact();
+            stalled = out.position() >= OUT_HIGH_WATER;
+        }
+
+        private void execute() {
+            long requestId = in.getLong();
+            byte op = in.get();
+            try {
+                switch (op) {
+                    case OP_SAVE: {
+                        String account = getString(in);
+                        String code = getString(in);
+                        store.save(account, code, in.getLong());
+                        respond(requestId, STATUS_OK, null);
+                        break;
+                    }
+                    case OP_GET: {
+                        String code = store.get(getString(in));
+                        respond(requestId, code == null ? STATUS_NOT_FOUND : STATUS_OK, code == null ? null : encode(code));
+                        break;
+                    }
+                    case OP_REMOVE:
+                        store.remove(getString(in));
+                        respond(requestId, STATUS_OK, null);
+                        break;
+                    case OP_REMOVE_IF: {
+                        String account = getString(in);
+                        boolean removed = store.remove(account, getString(in));
+                        respond(requestId, removed ? STATUS_OK : STATUS_NOT_FOUND, null);
+                        break;
+                    }
+                    case OP_SIZE:
+                        ensureCapacity(LENGTH_FIELD + BODY_HEADER + 4);
+                        out.putInt(BODY_HEADER + 4).putLong(requestId).put(STATUS_OK).putInt(store.size());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知的操作：" + op);
+                }
+            } catch (RuntimeException e) {
+                respond(requestId, STATUS_ERROR, encode(String.valueOf(e.getMessage())));
+            }
+        }
+
+        private void respond(long requestId, byte status, byte[] payload) {
+            int bodyLength = BODY_HEADER + (payload == null ? 0 : stringLength(payload));
+            ensureCapacity(LENGTH_FIELD + bodyLength);
+            out.putInt(bodyLength).putLong(requestId).put(status);
+            if (payload != null) {
+                putString(out, payload);
+            }
+        }
+
+        private void ensureCapacity(int required) {
+            if (out.remaining() < required) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + required));
+                out.flip();
+                larger.put(out);
+                out = larger;
+            }
+        }
+
+        private void flush(SelectionKey key) throws IOException {
+            write();
+            while (stalled && out.position() < OUT_HIGH_WATER) {
+                // 积压已写出，继续执行暂停的请求
+                process();
+                write();
+            }
+            if (stalled) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+        }
+
+        private void write() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.junmoyu.template.method.store.shard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一致性哈希环 - 不可变，线程安全
+ * 每个节点在环上放置若干个虚拟节点，使数据分布更均匀；增删节点时只有约 1/N 的账号需要迁移
+ * 增删节点返回新的哈希环，读取方无需加锁
+ *
+ * @param <N> 节点类型
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ConsistentHashRing<N> {
+
+    private final int virtualNodes;
+    private final List<String> nodeIds;
+    private final List<N> nodes;
+    private final long[] hashes;
+    private final int[] owners;
+
+    /**
+     * 创建空的哈希环
+     *
+     * @param virtualNodes 每个节点的虚拟节点数量
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        this(virtualNodes, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private ConsistentHashRing(int virtualNodes, List<String> nodeIds, List<N> nodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes 必须大于 0");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodeIds = Collections.unmodifiableList(nodeIds);
+        this.nodes = Collections.unmodifiableList(nodes);
+
+        // 按哈希值排序虚拟节点，owners 记录每个虚拟节点所属的真实节点下标
+        int size = nodes.size() * virtualNodes;
+        long[][] points = new long[size][2];
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                points[n * virtualNodes + v][0] = hash(nodeIds.get(n) + "#" + v);
+                points[n * virtualNodes + v][1] = n;
+            }
+        }
+        Arrays.sort(points, (a, b) -> Long.compare(a[0], b[0]));
+        this.hashes = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = points[i][0];
+            owners[i] = (int) points[i][1];
+        }
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param nodeId 节点 ID，决定虚拟节点在环上的位置
+     * @param node   节点
+     * @return 新的哈希环
+     */
+    public ConsistentHashRing<N> withNode(String nodeId, N node) {
+        if (nodeIds.contains(nodeId)) {
+            throw new IllegalArgumentException("节点已存在：" + nodeId);
+        }
+        List<String> newIds = new ArrayList<>(nodeIds);
+        List<N> newNodes = new ArrayList<>(nodes);
+        newIds.add(nodeId);
+        newNodes.add(node);
+        return new ConsistentHashRing<>(virtualNodes, newIds, newNodes);
+    }
+
+    /**
+     * 移除节点
+     *
+     * @param nodeId 节点 ID
+     * @return 新的哈希环
+     */
+    public ConsistentHashRing<N> withoutNode(String nodeId) {
+        int index = nodeIds.indexOf(nodeId);
+        if (index < 0) {
+            throw new IllegalArgumentException("节点不存在：" + nodeId);
+        }
+        List<String> newIds = new ArrayList<>(nodeIds);
+        List<N> newNodes = new ArrayList<>(nodes);
+        newIds.remove(index);
+        newNodes.remove(index);
+        return new ConsistentHashRing<>(virtualNodes, newIds, newNodes);
+    }
+
+    /**
+     * 查找账号所属的节点：哈希环上顺时针方向的第一个虚拟节点
+     *
+     * @param key 账号
+     * @return 节点，环为空时返回 null
+     */
+    public N locate(CharSequence key) {
+        if (hashes.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(hashes, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (index == hashes.length) {
+            index = 0;
+        }
+        return nodes.get(owners[index]);
+    }
+
+    public List<N> getNodes() {
+        return nodes;
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    /**
+     * 64 位 FNV-1a，再经过 MurmurHash3 fmix64 打散
+     */
+    static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
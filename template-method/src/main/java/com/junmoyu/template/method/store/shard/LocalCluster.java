@@ -0,0 +1,181 @@
+package com.junmoyu.template.method.store.shard;
+
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的多节点集群 - 用于在单机上测试分片存储
+ * 每个节点是一个监听在本机随机端口上的 {@link CodeStoreServer}，客户端通过 {@link RemoteCodeStore} 经真实的 TCP 连接访问，
+ * 因此协议、流水线和增删节点时的迁移行为都与多机部署一致
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class LocalCluster implements Closeable {
+
+    private static final long TIMEOUT_MILLIS = 3000;
+
+    private final ShardedCodeStore shardedStore;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final AtomicInteger nodeIndex = new AtomicInteger();
+
+    /**
+     * @param nodeCount     初始节点数量
+     * @param handoffMillis 增删节点后的交接期，单位毫秒
+     * @throws IOException 节点启动失败时抛出
+     */
+    public LocalCluster(int nodeCount, long handoffMillis) throws IOException {
+        this.shardedStore = new ShardedCodeStore(handoffMillis);
+        for (int i = 0; i < nodeCount; i++) {
+            addNode();
+        }
+    }
+
+    /**
+     * 启动一个新节点并加入哈希环
+     *
+     * @return 节点 ID
+     * @throws IOException 节点启动失败时抛出
+     */
+    public synchronized String addNode() throws IOException {
+        String nodeId = "node-" + nodeIndex.incrementAndGet();
+        ConcurrentCodeStore store = new ConcurrentCodeStore();
+        CodeStoreServer server = null;
+        RemoteCodeStore client;
+        try {
+            server = new CodeStoreServer(store, new InetSocketAddress("127.0.0.1", 0));
+            client = new RemoteCodeStore(server.getAddress(), TIMEOUT_MILLIS);
+        } catch (IOException | RuntimeException e) {
+            store.shutdown();
+            if (server != null) {
+                server.close();
+            }
+            throw e;
+        }
+        nodes.put(nodeId, new Node(store, server, client));
+        shardedStore.addNode(nodeId, client);
+        return nodeId;
+    }
+
+    /**
+     * 将节点移出哈希环，节点本身保持运行直到集群关闭，交接期内仍可读取
+     *
+     * @param nodeId 节点 ID
+     */
+    public synchronized void removeNode(String nodeId) {
+        shardedStore.removeNode(nodeId);
+    }
+
+    /**
+     * 集群对外的存储入口，可直接传给 AbstractValidateCode
+     *
+     * @return 分片存储
+     */
+    public CodeStore getStore() {
+        return shardedStore;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Node node : nodes.values()) {
+            try {
+                node.client.close();
+                node.server.close();
+            } finally {
+                // 停止存储的过期清理线程
+                node.store.shutdown();
+            }
+        }
+        nodes.clear();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int accounts = 200_000;
+        try (LocalCluster cluster = new LocalCluster(3, TimeUnit.MINUTES.toMillis(5))) {
+            ShardedCodeStore store = cluster.shardedStore;
+
+            // 吞吐量测试：多线程并发写入，同一连接上的请求以流水线方式执行
+            long start = System.nanoTime();
+            runConcurrently(8, accounts, i -> store.save(account(i), "123456", TimeUnit.MINUTES.toMillis(5)));
+            long elapsed = System.nanoTime() - start;
+            System.out.println("写入 " + accounts + " 个验证码，耗时 " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                    + " ms，吞吐量 " + accounts * 1_000_000_000L / elapsed + " ops/s，总数 " + store.size());
+
+            // 扩容测试：新增节点后统计归属发生变化的账号比例，交接期内所有验证码仍可读取
+            ConsistentHashRing<CodeStore> before = store.getRing();
+            cluster.addNode();
+            ConsistentHashRing<CodeStore> after = store.getRing();
+            int moved = 0;
+            int missing = 0;
+            for (int i = 0; i < accounts; i++) {
+                if (before.locate(account(i)) != after.locate(account(i))) {
+                    moved++;
+                }
+                if (store.get(account(i)) == null) {
+                    missing++;
+                }
+            }
+            System.out.println("新增节点后迁移比例 " + moved * 100 / accounts + "%（理想值约 25%），丢失验证码 " + missing + " 个");
+
+            // 缩容测试
+            cluster.removeNode(after.getNodeIds().get(0));
+            missing = 0;
+            for (int i = 0; i < accounts; i++) {
+                if (store.get(account(i)) == null) {
+                    missing++;
+                }
+            }
+            System.out.println("移除节点后丢失验证码 " + missing + " 个");
+        }
+    }
+
+    private static String account(int i) {
+        return String.valueOf(13_800_000_000L + i);
+    }
+
+    private static void runConcurrently(int threads, int total, IntTask task) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                for (int i = offset; i < total; i += threads) {
+                    task.run(i);
+                }
+                latch.countDown();
+            });
+            worker.start();
+        }
+        latch.await();
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+
+        void run(int i);
+    }
+
+    /**
+     * 节点的服务端与客户端
+     */
+    private static final class Node {
+
+        private final ConcurrentCodeStore store;
+        private final CodeStoreServer server;
+        private final RemoteCodeStore client;
+
+        private Node(ConcurrentCodeStore store, CodeStoreServer server, RemoteCodeStore client) {
+            this.store = store;
+            this.server = server;
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.junmoyu.template.method.store.shard;
+
+import com.junmoyu.template.method.store.CodeStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.junmoyu.template.method.store.shard.CodeStoreProtocol.*;
+
+/**
+ * 远程验证码存储 - 线程安全
+ * 通过一条 TCP 连接访问 {@link CodeStoreServer}，请求写出后不等待响应，
+ * 由独立的读线程按 requestId 把响应交给对应的 CompletableFuture，多个线程的请求在同一连接上流水线执行
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class RemoteCodeStore implements CodeStore, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final long timeoutMillis;
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Map<Long, Call> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final Thread reader;
+    private volatile boolean running = true;
+
+    /**
+     * @param address       服务端地址
+     * @param timeoutMillis 同步调用的超时时间，单位毫秒
+     * @throws IOException 连接失败时抛出
+     */
+    public RemoteCodeStore(InetSocketAddress address, long timeoutMillis) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.channel.socket().setTcpNoDelay(true);
+        this.timeoutMillis = timeoutMillis;
+        this.reader = new Thread(this::readLoop, "remote-code-store-" + address.getPort());
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        await(saveRequest(account, code, ttlMillis), response -> null);
+    }
+
+    @Override
+    public String get(String account) {
+        return await(getRequest(account), RemoteCodeStore::toCode);
+    }
+
+    @Override
+    public void remove(String account) {
+        await(removeRequest(account), response -> null);
+    }
+
+    @Override
+    public boolean remove(String account, String code) {
+        return await(removeRequest(account, code), RemoteCodeStore::toRemoved);
+    }
+
+    @Override
+    public int size() {
+        return await(request(OP_SIZE, 0, buffer -> {
+        }), ByteBuffer::getInt);
+    }
+
+    /**
+     * 异步保存验证码
+     * 异步调用不设超时，服务端一直不响应时由调用方自行处理，连接断开时异常完成
+     *
+     * @return 服务端保存完成后完成
+     */
+    public CompletableFuture<Void> saveAsync(String account, String code, long ttlMillis) {
+        return saveRequest(account, code, ttlMillis).thenApply(response -> null);
+    }
+
+    /**
+     * 异步获取验证码
+     *
+     * @return 验证码，不存在时为 null
+     */
+    public CompletableFuture<String> getAsync(String account) {
+        return getRequest(account).thenApply(RemoteCodeStore::toCode);
+    }
+
+    /**
+     * 异步移除验证码
+     *
+     * @return 服务端移除完成后完成
+     */
+    public CompletableFuture<Void> removeAsync(String account) {
+        return removeRequest(account).thenApply(response -> null);
+    }
+
+    /**
+     * 异步移除验证码，仅当验证码一致时移除，比较与移除在服务端原子执行
+     *
+     * @return 是否已移除
+     */
+    public CompletableFuture<Boolean> removeAsync(String account, String code) {
+        return removeRequest(account, code).thenApply(RemoteCodeStore::toRemoved);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        channel.close();
+        failAll(new IOException("连接已关闭"));
+    }
+
+    private Call saveRequest(String account, String code, long ttlMillis) {
+        byte[] accountBytes = encode(account);
+        byte[] codeBytes = encode(code);
+        return request(OP_SAVE, stringLength(accountBytes) + stringLength(codeBytes) + 8, buffer -> {
+            putString(buffer, accountBytes);
+            putString(buffer, codeBytes);
+            buffer.putLong(ttlMillis);
+        });
+    }
+
+    private Call getRequest(String account) {
+        byte[] accountBytes = encode(account);
+        return request(OP_GET, stringLength(accountBytes), buffer -> putString(buffer, accountBytes));
+    }
+
+    private Call removeRequest(String account) {
+        byte[] accountBytes = encode(account);
+        return request(OP_REMOVE, stringLength(accountBytes), buffer -> putString(buffer, accountBytes));
+    }
+
+    private Call removeRequest(String account, String code) {
+        byte[] accountBytes = encode(account);
+        byte[] codeBytes = encode(code);
+        return request(OP_REMOVE_IF, stringLength(accountBytes) + stringLength(codeBytes), buffer -> {
+            putString(buffer, accountBytes);
+            putString(buffer, codeBytes);
+        });
+    }
+
+    private static String toCode(ByteBuffer response) {
+        return response == null ? null : getString(response);
+    }
+
+    private static Boolean toRemoved(ByteBuffer response) {
+        return response != null;
+    }
+
+    /**
+     * 写出请求帧
+     *
+     * @return 响应的 payload；GET 未命中时为 null
+     */
+    private Call request(byte op, int payloadLength, PayloadWriter writer) {
+        long requestId = requestIds.incrementAndGet();
+        Call call = new Call(requestId);
+        pending.put(requestId, call);
+
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_FIELD + BODY_HEADER + payloadLength);
+        frame.putInt(BODY_HEADER + payloadLength).putLong(requestId).put(op);
+        writer.write(frame);
+        frame.flip();
+        try {
+            synchronized (writeLock) {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    private void readLoop() {
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        try {
+            while (running) {
+                if (channel.read(in) < 0) {
+                    break;
+                }
+                in.flip();
+                while (in.remaining() >= LENGTH_FIELD) {
+                    int length = in.getInt(in.position());
+                    if (length < BODY_HEADER || length > MAX_FRAME) {
+                        throw new IOException("非法的帧长度：" + length);
+                    }
+                    if (in.remaining() < LENGTH_FIELD + length) {
+                        break;
+                    }
+                    in.position(in.position() + LENGTH_FIELD);
+                    long requestId = in.getLong();
+                    byte status = in.get();
+                    // 复制 payload，避免读缓冲区被下一次读取覆盖
+                    byte[] payload = new byte[length - BODY_HEADER];
+                    in.get(payload);
+                    complete(requestId, status, ByteBuffer.wrap(payload));
+                }
+                in.compact();
+            }
+            failAll(new IOException("连接已断开"));
+        } catch (IOException e) {
+            failAll(e);
+        }
+    }
+
+    private void complete(long requestId, byte status, ByteBuffer payload) {
+        Call call = pending.remove(requestId);
+        if (call == null) {
+            return;
+        }
+        if (status == STATUS_OK) {
+            call.complete(payload);
+        } else if (status == STATUS_NOT_FOUND) {
+            call.complete(null);
+        } else {
+            call.completeExceptionally(new IllegalStateException("远程存储执行失败：" + getString(payload)));
+        }
+    }
+
+    private void failAll(Throwable error) {
+        for (Long requestId : pending.keySet()) {
+            Call call = pending.remove(requestId);
+            if (call != null) {
+                call.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * 同步等待响应，超时或被中断时从 pending 中移除该请求，迟到的响应会被读线程丢弃
+     */
+    private <T> T await(Call call, Function<ByteBuffer, T> mapper) {
+        ByteBuffer response;
+        try {
+            response = call.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            pending.remove(call.requestId);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待远程存储响应时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            pending.remove(call.requestId);
+            throw new IllegalStateException("远程存储响应超时", e);
+        }
+        return mapper.apply(response);
+    }
+
+    /**
+     * 一次进行中的请求，携带 requestId 以便超时后从 pending 中移除
+     */
+    private static final class Call extends CompletableFuture<ByteBuffer> {
+
+        private final long requestId;
+
+        private Call(long requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    /**
+     * 写入请求 payload
+     */
+    @FunctionalInterface
+    private interface PayloadWriter {
+
+        void write(ByteBuffer buffer);
+    }
+}
@@ -0,0 +1,225 @@
+package com.junmoyu.template.method.store.shard;
+
+import com.junmoyu.template.method.store.CodeStore;
+
+/**
+ * 分片验证码存储 - 线程安全
+ * 按一致性哈希把账号分配到多个节点上，各节点可以是本地存储，也可以是 {@link RemoteCodeStore}
+ * <p>
+ * 增删节点后，部分账号的归属节点会发生变化。为了不让正在登录的用户校验失败，
+ * 在交接期（一般取验证码的最长有效期）内，读取时当前节点未命中会依次再查旧哈希环上的节点，
+ * 移除时各处都会移除；连续多次增删节点时，每个尚未过期的旧哈希环都会被保留，
+ * 交接期过后旧哈希环被丢弃，旧节点上的残留验证码也已过期
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class ShardedCodeStore implements CodeStore {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final long handoffMillis;
+
+    private volatile ConsistentHashRing<CodeStore> ring;
+
+    /**
+     * 交接期内的旧哈希环，由新到旧串成链表，整条链表一起替换
+     */
+    private volatile Handoff handoff;
+
+    /**
+     * @param handoffMillis 增删节点后的交接期，单位毫秒，应不小于验证码的有效期
+     */
+    public ShardedCodeStore(long handoffMillis) {
+        this.handoffMillis = handoffMillis;
+        this.ring = new ConsistentHashRing<>(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param nodeId 节点 ID
+     * @param store  节点上的存储
+     */
+    public synchronized void addNode(String nodeId, CodeStore store) {
+        changeRing(ring.withNode(nodeId, store));
+    }
+
+    /**
+     * 移除节点，交接期内仍会从该节点读取
+     *
+     * @param nodeId 节点 ID
+     */
+    public synchronized void removeNode(String nodeId) {
+        changeRing(ring.withoutNode(nodeId));
+    }
+
+    @Override
+    public void save(String account, String code, long ttlMillis) {
+        owner(ring, account).save(account, code, ttlMillis);
+    }
+
+    @Override
+    public String get(String account) {
+        CodeStore owner = owner(ring, account);
+        String code = owner.get(account);
+        if (code != null) {
+            return code;
+        }
+        long now = System.currentTimeMillis();
+        for (Handoff h = handoff; h != null && now < h.expireAt; h = h.next) {
+            CodeStore previous = h.ring.locate(account);
+            if (previous != null && previous != owner && (code = previous.get(account)) != null) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void remove(String account) {
+        CodeStore owner = owner(ring, account);
+        owner.remove(account);
+        long now = System.currentTimeMillis();
+        for (Handoff h = handoff; h != null && now < h.expireAt; h = h.next) {
+            CodeStore previous = h.ring.locate(account);
+            if (previous != null && previous != owner) {
+                previous.remove(account);
+            }
+        }
+    }
+
+    /**
+     * 依次在当前节点和交接期内的旧节点上尝试移除，任一节点移除成功即返回
+     */
+    @Override
+    public boolean remove(String account, String code) {
+        CodeStore owner = owner(ring, account);
+        if (owner.remove(account, code)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (Handoff h = handoff; h != null && now < h.expireAt; h = h.next) {
+            CodeStore previous = h.ring.locate(account);
+            if (previous != null && previous != owner && previous.remove(account, code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void remove(CharSequence account) {
+        CodeStore owner = owner(ring, account);
+        owner.remove(account);
+        long now = System.currentTimeMillis();
+        for (Handoff h = handoff; h != null && now < h.expireAt; h = h.next) {
+            CodeStore previous = h.ring.locate(account);
+            if (previous != null && previous != owner) {
+                previous.remove(account);
+            }
+        }
+    }
+
+    /**
+     * 与 {@link #get(String)} 相同，新节点上不存在时依次到迁移窗口内的旧节点上校验
+     */
+    @Override
+    public Verification verifyAndRemove(CharSequence account, CharSequence code) {
+        CodeStore owner = owner(ring, account);
+        Verification verification = owner.verifyAndRemove(account, code);
+        if (verification != Verification.MISSING) {
+            return verification;
+        }
+        long now = System.currentTimeMillis();
+        for (Handoff h = handoff; h != null && now < h.expireAt; h = h.next) {
+            CodeStore previous = h.ring.locate(account);
+            if (previous != null && previous != owner
+                    && (verification = previous.verifyAndRemove(account, code)) != Verification.MISSING) {
+                return verification;
+            }
+        }
+        return Verification.MISSING;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (CodeStore store : ring.getNodes()) {
+            size += store.size();
+        }
+        return size;
+    }
+
+    /**
+     * 遍历当前哈希环上所有节点，节点不支持遍历（如远程节点）时抛出 UnsupportedOperationException
+     */
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        for (CodeStore store : ring.getNodes()) {
+            store.forEach(visitor);
+        }
+    }
+
+    /**
+     * 当前哈希环上所有节点都支持遍历时才支持，之后加入的节点不在判断范围内
+     */
+    @Override
+    public boolean isIterable() {
+        for (CodeStore store : ring.getNodes()) {
+            if (!store.isIterable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前的哈希环，可用于统计账号分布或迁移比例
+     *
+     * @return 哈希环
+     */
+    public ConsistentHashRing<CodeStore> getRing() {
+        return ring;
+    }
+
+    private void changeRing(ConsistentHashRing<CodeStore> newRing) {
+        long now = System.currentTimeMillis();
+        handoff = new Handoff(ring, now + handoffMillis, prune(handoff, now));
+        ring = newRing;
+    }
+
+    /**
+     * 去掉链表中已过期的旧哈希环，越早加入的越先过期，因此截断第一个过期节点之后的部分即可
+     */
+    private static Handoff prune(Handoff head, long now) {
+        if (head == null || now >= head.expireAt) {
+            return null;
+        }
+        return new Handoff(head.ring, head.expireAt, prune(head.next, now));
+    }
+
+    private static CodeStore owner(ConsistentHashRing<CodeStore> ring, CharSequence account) {
+        CodeStore owner = ring.locate(account);
+        if (owner == null) {
+            throw new IllegalStateException("没有可用的存储节点");
+        }
+        return owner;
+    }
+
+    /**
+     * 交接期信息
+     */
+    private static final class Handoff {
+
+        private final ConsistentHashRing<CodeStore> ring;
+        private final long expireAt;
+        private final Handoff next;
+
+        private Handoff(ConsistentHashRing<CodeStore> ring, long expireAt, Handoff next) {
+            this.ring = ring;
+            this.expireAt = expireAt;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.junmoyu.template.method.util;
+
+/**
+ * 账号校验器
+ * 手写的单次扫描实现，直接遍历 CharSequence，不编译正则、不回溯、不分配任何对象
+ * 接受与拒绝的输入与 RegexUtils 中对应的正则表达式完全一致
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class AccountValidator {
+
+    private AccountValidator() {
+    }
+
+    /**
+     * 验证手机号，等价于 {@link RegexUtils#REGEX_MOBILE}：1 开头的 11 位数字
+     *
+     * @param input 待验证文本
+     * @return true: 匹配; false: 不匹配
+     */
+    public static boolean isMobile(CharSequence input) {
+        if (input == null || input.length() != 11 || input.charAt(0) != '1') {
+            return false;
+        }
+        for (int i = 1; i < 11; i++) {
+            if (!isDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证邮箱，等价于 {@link RegexUtils#REGEX_EMAIL}
+     * 本地部分：由单词字符组成的片段，片段之间以单个 - + . 分隔
+     * 域名部分：由单词字符组成的片段，片段之间以单个 - . 分隔，且至少有一个 .
+     *
+     * @param input 待验证文本
+     * @return true: 匹配; false: 不匹配
+     */
+    public static boolean isEmail(CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+        int length = input.length();
+
+        // 1.本地部分 \w+([-+.]\w+)*
+        int i = 0;
+        if (i >= length || !isWord(input.charAt(i))) {
+            return false;
+        }
+        while (true) {
+            while (i < length && isWord(input.charAt(i))) {
+                i++;
+            }
+            if (i < length && isLocalSeparator(input.charAt(i))) {
+                i++;
+                if (i >= length || !isWord(input.charAt(i))) {
+                    return false;
+                }
+                continue;
+            }
+            break;
+        }
+
+        // 2.@
+        if (i >= length || input.charAt(i) != '@') {
+            return false;
+        }
+        i++;
+
+        // 3.域名部分 \w+([-.]\w+)*\.\w+([-.]\w+)*
+        if (i >= length || !isWord(input.charAt(i))) {
+            return false;
+        }
+        boolean hasDot = false;
+        while (true) {
+            while (i < length && isWord(input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                return hasDot;
+            }
+            char c = input.charAt(i);
+            if (c != '.' && c != '-') {
+                return false;
+            }
+            hasDot |= c == '.';
+            i++;
+            if (i >= length || !isWord(input.charAt(i))) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 正则中的 \d
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 正则中的 \w，未开启 UNICODE_CHARACTER_CLASS 时等价于 [a-zA-Z_0-9]
+     */
+    private static boolean isWord(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    private static boolean isLocalSeparator(char c) {
+        return c == '-' || c == '+' || c == '.';
+    }
+}
@@ -0,0 +1,63 @@
+package com.junmoyu.template.method.util;
+
+import java.util.Random;
+
+/**
+ * 账号校验器的测试类
+ * 将手写扫描与原有正则在固定用例和随机输入上逐一比对，结果必须完全一致
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class AccountValidatorTest {
+
+    private static final String[] MOBILE_CASES = {
+            "", "1", "13855287421", "23855287421", "1385528742", "138552874211", "1385528742a", "１3855287421"
+    };
+
+    private static final String[] EMAIL_CASES = {
+            "", "example@email.com", "a.b-c+d@e-f.g.h", "a@b", "a@b.c", "a@b-c", "a@.com", "a@b..com", "a@b.com.",
+            ".a@b.com", "a.@b.com", "a..b@c.com", "a+b@c.d-e", "a@b+c.com", "a@@b.com", "a b@c.com", "_@_._",
+            "a@b.c\n", "é@b.com", "a@b_c.d_e"
+    };
+
+    /**
+     * 随机输入使用的字符集，覆盖单词字符、各类分隔符和非法字符
+     */
+    private static final char[] ALPHABET = "aZ09_.-+@ \n#é".toCharArray();
+
+    public static void main(String[] args) {
+        for (String input : MOBILE_CASES) {
+            checkMobile(input);
+        }
+        for (String input : EMAIL_CASES) {
+            checkEmail(input);
+        }
+
+        Random random = new Random(20210424);
+        int rounds = 1_000_000;
+        for (int i = 0; i < rounds; i++) {
+            char[] chars = new char[random.nextInt(16)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            checkEmail(new String(chars));
+            checkMobile("1" + Math.abs(random.nextLong() % 100_000_000_000L));
+        }
+        System.out.println("校验通过：固定用例与 " + rounds + " 组随机输入的结果均与正则一致");
+    }
+
+    private static void checkMobile(String input) {
+        boolean expected = RegexUtils.isMatch(RegexUtils.REGEX_MOBILE, input);
+        if (AccountValidator.isMobile(input) != expected) {
+            throw new AssertionError("手机号校验结果与正则不一致：" + input + "，正则结果：" + expected);
+        }
+    }
+
+    private static void checkEmail(String input) {
+        boolean expected = RegexUtils.isMatch(RegexUtils.REGEX_EMAIL, input);
+        if (AccountValidator.isEmail(input) != expected) {
+            throw new AssertionError("邮箱校验结果与正则不一致：" + input + "，正则结果：" + expected);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.junmoyu.template.method.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ByteBuffer 的 CharSequence 视图 - 非线程安全，可复用
+ * 按单字节（ASCII / ISO-8859-1）把缓冲区中的一段解释为字符，不复制数据，
+ * NIO 前端可以直接用请求缓冲区中的账号和验证码调用校验，不必先创建 String
+ * <p>
+ * 视图只在缓冲区内容不变时有效，不要在异步任务中保存
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class ByteSequence implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    /**
+     * 指向缓冲区 position 到 limit 之间的内容，不修改缓冲区的 position
+     *
+     * @param buffer 缓冲区
+     * @return this
+     */
+    public ByteSequence wrap(ByteBuffer buffer) {
+        return wrap(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * 指向缓冲区中的一段内容
+     *
+     * @param buffer 缓冲区
+     * @param offset 起始位置（绝对位置）
+     * @param length 长度
+     * @return this
+     */
+    public ByteSequence wrap(ByteBuffer buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length + ", limit=" + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * 释放对缓冲区的引用
+     */
+    public void clear() {
+        this.buffer = null;
+        this.offset = 0;
+        this.length = 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index=" + index + ", length=" + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length);
+        }
+        return new ByteSequence().wrap(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
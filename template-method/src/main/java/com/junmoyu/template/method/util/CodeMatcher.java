@@ -0,0 +1,67 @@
+package com.junmoyu.template.method.util;
+
+/**
+ * 验证码比较 - 恒定时间，不分配内存
+ * String.equalsIgnoreCase 在第一个不同的字符处就返回，攻击者可以通过响应时间逐位猜测验证码；
+ * 这里的比较总是遍历完已保存验证码的全部字符，耗时只与验证码长度有关，与输入内容无关
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class CodeMatcher {
+
+    private CodeMatcher() {
+    }
+
+    /**
+     * 忽略 ASCII 大小写的恒定时间比较
+     *
+     * @param expected 已保存的验证码
+     * @param actual   用户输入的验证码
+     * @return 两者都不为 null 且相等时返回 true
+     */
+    public static boolean equalsIgnoreCase(CharSequence expected, CharSequence actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        int length = expected.length();
+        int actualLength = actual.length();
+        int diff = length ^ actualLength;
+        for (int i = 0; i < length; i++) {
+            // 长度不同时仍然遍历完 expected，越界的位置用 0 代替
+            int c = i < actualLength ? actual.charAt(i) : 0;
+            diff |= toLowerCase(expected.charAt(i)) ^ toLowerCase(c);
+        }
+        return diff == 0;
+    }
+
+    /**
+     * 纯数字验证码与数值的恒定时间比较，例如 "012345" 与 12345 相等
+     *
+     * @param expected 已保存的验证码
+     * @param actual   用户输入的验证码数值
+     * @return expected 为不超过 10 位的纯数字且数值相等时返回 true
+     */
+    public static boolean equalsNumber(CharSequence expected, int actual) {
+        if (expected == null) {
+            return false;
+        }
+        int length = expected.length();
+        long value = 0;
+        // int 最多 10 位，10 位以内的数字不会超出 long 范围；更长的直接判为无效，否则溢出回绕后可能与 actual 相等
+        int invalid = (length - 1) >>> 31 | (10 - length) >>> 31 | actual >>> 31;
+        for (int i = 0; i < length; i++) {
+            int digit = expected.charAt(i) - '0';
+            invalid |= (digit | (9 - digit)) >>> 31;
+            value = value * 10 + digit;
+        }
+        return (invalid | (value ^ actual)) == 0;
+    }
+
+    /**
+     * 无分支的 ASCII 小写转换：只有 'A' ~ 'Z' 时两个差值同为负数，符号位为 1
+     */
+    private static int toLowerCase(int c) {
+        return c + ((('A' - 1 - c) & (c - ('Z' + 1))) >>> 31 << 5);
+    }
+}
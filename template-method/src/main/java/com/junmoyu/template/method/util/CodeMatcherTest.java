@@ -0,0 +1,175 @@
+package com.junmoyu.template.method.util;
+
+import com.junmoyu.template.method.store.CodeStore;
+import com.junmoyu.template.method.store.CodeStore.Verification;
+import com.junmoyu.template.method.store.CompactCodeStore;
+import com.junmoyu.template.method.store.ConcurrentCodeStore;
+
+import java.util.Random;
+
+/**
+ * 验证码比较的测试类
+ * CodeMatcher 和 CompactCodeStore 的比较都是无分支的位运算，这里用固定用例覆盖大小写、长度、前导 0、非数字和负数输入，
+ * 再用随机输入与 String.equalsIgnoreCase / Integer.parseInt 的结果逐一比对
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class CodeMatcherTest {
+
+    /**
+     * 随机输入使用的字符集，包含 'A' ~ 'Z' 边界两侧的 '@'、'['，以及 'a' ~ 'z' 边界两侧的 '`'、'{'
+     */
+    private static final char[] ALPHABET = "aAzZ09@[`{é".toCharArray();
+
+    public static void main(String[] args) {
+        // 大小写
+        check(CodeMatcher.equalsIgnoreCase("aBc123", "AbC123"), "忽略大小写");
+        check(CodeMatcher.equalsIgnoreCase("AZaz", "azAZ"), "'A'、'Z' 边界");
+        check(!CodeMatcher.equalsIgnoreCase("@", "`"), "'@' 与 '`' 只差大小写位，但不是字母");
+        check(!CodeMatcher.equalsIgnoreCase("[", "{"), "'[' 与 '{' 只差大小写位，但不是字母");
+        check(!CodeMatcher.equalsIgnoreCase("é", "É"), "只折叠 ASCII 字母");
+        // 长度
+        check(!CodeMatcher.equalsIgnoreCase("1234", "123"), "输入较短");
+        check(!CodeMatcher.equalsIgnoreCase("1234", "12345"), "输入较长");
+        check(!CodeMatcher.equalsIgnoreCase("1234", ""), "输入为空");
+        check(!CodeMatcher.equalsIgnoreCase("", "1"), "已保存的验证码为空");
+        check(CodeMatcher.equalsIgnoreCase("", ""), "都为空");
+        check(!CodeMatcher.equalsIgnoreCase("123\0", "123"), "越界位置补 0 不能与 '\\0' 相等");
+        check(!CodeMatcher.equalsIgnoreCase(null, "1") && !CodeMatcher.equalsIgnoreCase("1", null), "null");
+
+        // 前导 0
+        check(CodeMatcher.equalsNumber("012345", 12345), "前导 0");
+        check(CodeMatcher.equalsNumber("000000", 0), "全 0");
+        check(!CodeMatcher.equalsNumber("012345", 123450), "数值不同");
+        // 非数字
+        check(!CodeMatcher.equalsNumber("12a45", 12145), "'a' - '0' = 49，不能当作数字");
+        check(!CodeMatcher.equalsNumber("12/45", 12145), "'/' 是 '0' 的前一个字符");
+        check(!CodeMatcher.equalsNumber("12:45", 12145), "':' 是 '9' 的后一个字符");
+        check(!CodeMatcher.equalsNumber("", 0), "空字符串不等于 0");
+        check(!CodeMatcher.equalsNumber(null, 0), "null");
+        // 负数
+        check(!CodeMatcher.equalsNumber("1", -1), "负数");
+        check(!CodeMatcher.equalsNumber("2147483648", Integer.MIN_VALUE), "负数的无符号值");
+        check(CodeMatcher.equalsNumber("2147483647", Integer.MAX_VALUE), "int 最大值");
+        check(!CodeMatcher.equalsNumber("4294967297", 1), "超出 int 范围，截断为 int 后等于 1");
+        check(!CodeMatcher.equalsNumber("9223372036854775808", 0), "超过 10 位，按 2^63 回绕后等于 0");
+        check(!CodeMatcher.equalsNumber("00000012345", 12345), "超过 10 位");
+
+        checkCompactStore();
+
+        Random random = new Random(20210424);
+        int rounds = 1_000_000;
+        for (int i = 0; i < rounds; i++) {
+            String expected = randomString(random);
+            String actual = random.nextBoolean() ? flipCase(expected, random) : randomString(random);
+            check(CodeMatcher.equalsIgnoreCase(expected, actual) == asciiEqualsIgnoreCase(expected, actual),
+                    "随机比对：" + expected + " / " + actual);
+
+            String digits = String.valueOf(random.nextInt(1_000_000));
+            int actualNumber = random.nextBoolean() ? Integer.parseInt(digits) : random.nextInt();
+            String padded = random.nextBoolean() ? "0" + digits : digits;
+            check(CodeMatcher.equalsNumber(padded, actualNumber) == (Integer.parseInt(padded) == actualNumber),
+                    "随机比对：" + padded + " / " + actualNumber);
+        }
+        System.out.println("校验通过：固定用例与 " + rounds + " 组随机输入的结果均与 JDK 一致");
+    }
+
+    /**
+     * CompactCodeStore 把纯数字验证码打包为数值和长度，按位比较
+     */
+    private static void checkCompactStore() {
+        CompactCodeStore store = new CompactCodeStore(16, new ConcurrentCodeStore());
+        String account = "13855287421";
+        long mobile = 13855287421L;
+
+        store.save(account, "012345", 60_000);
+        checkVerification(store.verifyAndRemove(account, "12345"), Verification.MISMATCHED, "打包后的长度不同");
+        checkVerification(store.verifyAndRemove(account, "0123456"), Verification.MISMATCHED, "输入较长");
+        checkVerification(store.verifyAndRemove(account, "01234a"), Verification.MISMATCHED, "非数字");
+        checkVerification(store.verifyAndRemove(mobile, -12345), Verification.MISMATCHED, "负数");
+        checkVerification(store.verifyAndRemove(account, "012345"), Verification.MATCHED, "前导 0");
+        checkVerification(store.verifyAndRemove(account, "012345"), Verification.MISSING, "匹配后已移除");
+
+        store.save(account, "012345", 60_000);
+        checkVerification(store.verifyAndRemove(mobile, 12345), Verification.MATCHED, "按数值比较前导 0");
+
+        // 非数字验证码存放在后备存储中，忽略大小写
+        store.save(account, "aB12", 60_000);
+        checkVerification(store.verifyAndRemove(account, "AB12"), Verification.MATCHED, "后备存储忽略大小写");
+
+        checkConsumeOnce(store, account);
+        checkConsumeOnce(new ConcurrentCodeStore(), account);
+    }
+
+    /**
+     * 同一验证码被并发校验时只能通过一次
+     */
+    private static void checkConsumeOnce(CodeStore store, String account) {
+        for (int round = 0; round < 1000; round++) {
+            store.save(account, "654321", 60_000);
+            Verification[] results = new Verification[4];
+            Thread[] threads = new Thread[results.length];
+            for (int i = 0; i < threads.length; i++) {
+                int index = i;
+                threads[i] = new Thread(() -> results[index] = store.verifyAndRemove(account, "654321"));
+                threads[i].start();
+            }
+            int matched = 0;
+            for (int i = 0; i < threads.length; i++) {
+                try {
+                    threads[i].join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                matched += results[i] == Verification.MATCHED ? 1 : 0;
+            }
+            check(matched == 1, store.getClass().getSimpleName() + " 并发校验通过了 " + matched + " 次");
+        }
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    private static String flipCase(String value, Random random) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (random.nextBoolean()) {
+                chars[i] = Character.isUpperCase(chars[i]) ? Character.toLowerCase(chars[i]) : Character.toUpperCase(chars[i]);
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 只折叠 ASCII 字母的参照实现
+     */
+    private static boolean asciiEqualsIgnoreCase(String expected, String actual) {
+        if (expected.length() != actual.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            char a = expected.charAt(i);
+            char b = actual.charAt(i);
+            if (a != b && !(a < 128 && b < 128 && Character.toLowerCase(a) == Character.toLowerCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkVerification(Verification actual, Verification expected, String message) {
+        check(actual == expected, message + "，期望 " + expected + "，实际 " + actual);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError("校验失败：" + message);
+        }
+    }
+}
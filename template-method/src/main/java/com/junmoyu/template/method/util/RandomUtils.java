@@ -1,31 +1,30 @@
 package com.junmoyu.template.method.util;
 
-import java.util.Random;
+import com.junmoyu.template.method.generator.CodeGenerator;
+import com.junmoyu.template.method.generator.ThreadLocalCodeGenerator;
 
 /**
  * 随机生成字符串
+ * 默认使用每个线程独立的随机数源，可通过 {@link #setCodeGenerator(CodeGenerator)} 切换为
+ * {@link com.junmoyu.template.method.generator.SecureBlockCodeGenerator} 等安全的实现
  *
  * @author moyu.jun
  * @date 2021/4/24
  */
 public class RandomUtils {
 
-    private static final char[] MORE_CHAR = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
-    private static final Random RANDOM = new Random();
+    private static volatile CodeGenerator codeGenerator = new ThreadLocalCodeGenerator();
 
     /**
-     * 随机生成验证码
+     * 设置验证码生成器
      *
-     * @param length 长度
-     * @param end    结束长度
-     * @return 结果
+     * @param generator 验证码生成器
      */
-    private static String random(Integer length, Integer end) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            result.append(MORE_CHAR[RANDOM.nextInt(end)]);
+    public static void setCodeGenerator(CodeGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("generator 不能为空");
         }
-        return result.toString();
+        codeGenerator = generator;
     }
 
     /**
@@ -36,7 +35,7 @@ public class RandomUtils {
      * @return 结果
      */
     public static String random(Integer length, Boolean onlyNum) {
-        return onlyNum ? random(length, 10) : random(length, MORE_CHAR.length);
+        return codeGenerator.next(length, onlyNum);
     }
 
     /**
@@ -48,4 +47,24 @@ public class RandomUtils {
     public static String random(Integer length) {
         return random(length, false);
     }
+
+    /**
+     * 随机生成验证码并写入字符数组，长度为数组长度，不分配对象
+     *
+     * @param dest    目标数组
+     * @param onlyNum 是否只要数字
+     */
+    public static void random(char[] dest, boolean onlyNum) {
+        codeGenerator.next(dest, 0, dest.length, onlyNum);
+    }
+
+    /**
+     * 随机生成纯数字验证码的数值，不分配对象
+     *
+     * @param length 长度，最大为 9
+     * @return 验证码数值，范围 [0, 10^length)
+     */
+    public static int randomNumber(int length) {
+        return codeGenerator.nextNumber(length);
+    }
 }
@@ -1,5 +1,7 @@
 package com.junmoyu.template.method.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -20,6 +22,16 @@ public class RegexUtils {
      */
     public static final String REGEX_EMAIL = "^\\w+([-+.]\\w+)*@\\w+([-.]\\w+)*\\.\\w+([-.]\\w+)*$";
 
+    /**
+     * 缓存的最大正则数量，超出后不再缓存，避免传入动态拼接的正则时无限增长
+     */
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    /**
+     * 已编译的正则缓存，避免每次匹配都重新编译
+     */
+    private static final Map<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>();
+
     /**
      * 验证手机号
      *
@@ -27,7 +39,8 @@ public class RegexUtils {
      * @return true: 匹配; false: 不匹配
      */
     public static boolean isMobile(CharSequence input) {
-        return isMatch(REGEX_MOBILE, input);
+        // 与正则等价的手写扫描，不分配对象
+        return AccountValidator.isMobile(input);
     }
 
     /**
@@ -37,7 +50,8 @@ public class RegexUtils {
      * @return true: 匹配; false: 不匹配
      */
     public static boolean isEmail(CharSequence input) {
-        return isMatch(REGEX_EMAIL, input);
+        // 与正则等价的手写扫描，不分配对象，且不会因回溯在长输入上变慢
+        return AccountValidator.isEmail(input);
     }
 
     /**
@@ -48,6 +62,24 @@ public class RegexUtils {
      * @return true: 匹配; false: 不匹配
      */
     public static boolean isMatch(String regex, CharSequence input) {
-        return input != null && input.length() > 0 && Pattern.matches(regex, input);
+        return input != null && input.length() > 0 && compile(regex).matcher(input).matches();
+    }
+
+    /**
+     * 获取编译后的正则，优先从缓存中获取
+     *
+     * @param regex 正则表达式
+     * @return 编译后的正则
+     */
+    private static Pattern compile(String regex) {
+        Pattern pattern = PATTERN_CACHE.get(regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        pattern = Pattern.compile(regex);
+        if (PATTERN_CACHE.size() < MAX_CACHED_PATTERNS) {
+            PATTERN_CACHE.putIfAbsent(regex, pattern);
+        }
+        return pattern;
     }
 }